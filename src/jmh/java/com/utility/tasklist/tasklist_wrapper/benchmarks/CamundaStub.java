@@ -0,0 +1,123 @@
+package com.utility.tasklist.tasklist_wrapper.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-in for the Camunda endpoints the benchmarks call, answering with fixed bodies.
+ * The orchestration API and Operate are bound to :8088 and :8081 because the wrapper's URLs are
+ * fixed in UrlConfig, so nothing else may listen there while the benchmarks run.
+ */
+final class CamundaStub implements AutoCloseable {
+
+    static final String TOKEN_RESPONSE = "{\"access_token\":\"benchmark-token\",\"expires_in\":3600,\"token_type\":\"Bearer\"}";
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private int identityPort;
+
+    /** Token endpoint on a free port; see {@link #tokenUrl()} */
+    CamundaStub startIdentity() throws IOException {
+        return startIdentity(Duration.ZERO);
+    }
+
+    /** Token endpoint that takes {@code latency} to answer, like a slow Keycloak */
+    CamundaStub startIdentity(Duration latency) throws IOException {
+        HttpServer identity = server(0);
+        HttpHandler token = respond(TOKEN_RESPONSE);
+        identity.createContext("/token", exchange -> {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            token.handle(exchange);
+        });
+        identityPort = identity.getAddress().getPort();
+        return this;
+    }
+
+    /** Orchestration REST API (v2) on :8088 */
+    CamundaStub startOrchestration() throws IOException {
+        HttpServer orchestration = server(8088);
+        orchestration.createContext("/v2/messages/publication",
+                respond("{\"key\":\"2251799813685249\",\"tenantId\":\"<default>\"}"));
+        orchestration.createContext("/v2/messages/correlation",
+                respond("{\"key\":\"2251799813685250\",\"tenantId\":\"<default>\",\"processInstanceKey\":\"2251799813685251\"}"));
+        orchestration.createContext("/v2/process-instances",
+                respond("{\"processDefinitionKey\":\"2251799813685252\",\"processDefinitionId\":\"benchmark\","
+                        + "\"processDefinitionVersion\":1,\"processInstanceKey\":\"2251799813685253\",\"tenantId\":\"<default>\"}"));
+        return this;
+    }
+
+    /** Operate API (v1) on :8081; process instance searches answer with {@code searchItems} items */
+    CamundaStub startOperate(int searchItems) throws IOException {
+        HttpServer operate = server(8081);
+        operate.createContext("/v1/process-instances/search", respond(searchResponse(searchItems)));
+        operate.createContext("/v1/process-instances/", respond(processInstance(2251799813685253L)));
+        return this;
+    }
+
+    String tokenUrl() {
+        return "http://localhost:" + identityPort + "/token";
+    }
+
+    /** An Operate search response with the given number of process instances */
+    static byte[] searchResponse(int items) {
+        StringBuilder body = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(processInstance(2251799813685253L + i));
+        }
+        long last = 2251799813685253L + Math.max(items - 1, 0);
+        body.append("],\"sortValues\":[").append(last).append("],\"total\":").append(items).append('}');
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String processInstance(long key) {
+        return "{\"key\":" + key + ",\"processVersion\":3,\"processVersionTag\":\"v3\",\"bpmnProcessId\":\"customer_onboarding\","
+                + "\"parentKey\":null,\"startDate\":\"2024-05-14T09:12:44.123+0000\",\"endDate\":null,\"state\":\"ACTIVE\","
+                + "\"incident\":false,\"processDefinitionKey\":2251799813685249,\"tenantId\":\"<default>\"}";
+    }
+
+    private HttpServer server(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        servers.add(server);
+        return server;
+    }
+
+    private static HttpHandler respond(String body) {
+        return respond(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static HttpHandler respond(byte[] body) {
+        return exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        servers.forEach(server -> server.stop(0));
+    }
+}
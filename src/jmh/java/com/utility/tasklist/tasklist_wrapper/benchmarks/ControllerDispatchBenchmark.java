@@ -0,0 +1,110 @@
+package com.utility.tasklist.tasklist_wrapper.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.utility.tasklist.tasklist_wrapper.TasklistWrapperApplication;
+
+/**
+ * Full request dispatch: HTTP into the running wrapper, through MessageController and
+ * CamundaTaskService, out to the in-process Camunda stub and back. The process instance cache
+ * is disabled so every lookup reaches the stub; broker commands use the default (REST) routing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ControllerDispatchBenchmark {
+
+    /** Process instances in a search response */
+    @Param({"100", "5000"})
+    public int searchItems;
+
+    private CamundaStub stub;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stub = new CamundaStub().startIdentity().startOrchestration().startOperate(searchItems);
+        context = new SpringApplicationBuilder(TasklistWrapperApplication.class)
+                .properties(
+                        "server.port=0",
+                        "camunda.identity.token-url=" + stub.tokenUrl(),
+                        "wrapper.cache.process-instances.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newHttpClient();
+    }
+
+    @Benchmark
+    public byte[] publishMessage() throws Exception {
+        return post("/messages/publication", "{\"name\":\"order-paid\",\"correlationKey\":\"ORD123\"}");
+    }
+
+    @Benchmark
+    public byte[] correlateMessage() throws Exception {
+        return post("/messages/correlation", "{\"name\":\"order-paid\",\"correlationKey\":\"ORD123\"}");
+    }
+
+    @Benchmark
+    public byte[] startProcess() throws Exception {
+        return post("/process-instances", "{\"processDefinitionId\":\"benchmark\",\"variables\":{\"orderId\":\"ORD123\"}}");
+    }
+
+    @Benchmark
+    public byte[] getProcessInstance() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/process-instances/2251799813685253")).GET().build());
+    }
+
+    @Benchmark
+    public byte[] searchProcessInstances() throws Exception {
+        return post("/v1/process-instances/search", "{\"filter\":{\"state\":\"ACTIVE\"},\"size\":" + searchItems + "}");
+    }
+
+    private byte[] post(String path, String json) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+
+    private byte[] send(HttpRequest request) throws Exception {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+        stub.close();
+    }
+}
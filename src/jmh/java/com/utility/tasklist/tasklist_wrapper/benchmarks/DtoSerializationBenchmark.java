@@ -0,0 +1,103 @@
+package com.utility.tasklist.tasklist_wrapper.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.tasklist.tasklist_wrapper.dto.EvaluateDecisionRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.ProcessInstancesRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.publicationMessageRequest;
+
+/**
+ * JSON (de)serialization of the request DTOs, with an ObjectMapper configured the way Spring
+ * Boot configures the one used by the controllers and WebClients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private publicationMessageRequest publication;
+    private ProcessInstancesRequest search;
+    private EvaluateDecisionRequest evaluation;
+
+    private byte[] publicationJson;
+    private byte[] searchJson;
+    private byte[] evaluationJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("customerName", "Sahil");
+        variables.put("orderId", "ORD123");
+        variables.put("amount", 1250.75);
+        variables.put("approved", true);
+        variables.put("items", List.of(Map.of("sku", "A-1", "quantity", 2), Map.of("sku", "B-7", "quantity", 1)));
+        publication = new publicationMessageRequest("order-paid", "ORD123", 0L, "ORD123-paid", variables, "<default>");
+
+        ProcessInstancesRequest.Filter filter = new ProcessInstancesRequest.Filter();
+        filter.setBpmnProcessId("customer_onboarding");
+        filter.setState("ACTIVE");
+        filter.setProcessDefinitionKey(2251799813685249L);
+        search = new ProcessInstancesRequest(filter, 100, List.of(2251799813685253L),
+                List.of(new ProcessInstancesRequest.Sort("startDate", "DESC")));
+
+        evaluation = new EvaluateDecisionRequest(null, "2251799813685260", "<default>",
+                Map.of("age", 42, "income", 58000, "country", "DE"));
+
+        publicationJson = objectMapper.writeValueAsBytes(publication);
+        searchJson = objectMapper.writeValueAsBytes(search);
+        evaluationJson = objectMapper.writeValueAsBytes(evaluation);
+    }
+
+    @Benchmark
+    public byte[] writePublication() throws Exception {
+        return objectMapper.writeValueAsBytes(publication);
+    }
+
+    @Benchmark
+    public publicationMessageRequest readPublication() throws Exception {
+        return objectMapper.readValue(publicationJson, publicationMessageRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeProcessInstancesRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(search);
+    }
+
+    @Benchmark
+    public ProcessInstancesRequest readProcessInstancesRequest() throws Exception {
+        return objectMapper.readValue(searchJson, ProcessInstancesRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeEvaluateDecisionRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(evaluation);
+    }
+
+    @Benchmark
+    public EvaluateDecisionRequest readEvaluateDecisionRequest() throws Exception {
+        return objectMapper.readValue(evaluationJson, EvaluateDecisionRequest.class);
+    }
+}
@@ -0,0 +1,154 @@
+package com.utility.tasklist.tasklist_wrapper.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.utility.tasklist.tasklist_wrapper.TasklistWrapperApplication;
+import com.utility.tasklist.tasklist_wrapper.controller.WrapperGrpcServer;
+import com.utility.tasklist.tasklist_wrapper.grpc.CorrelateRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.OperationResult;
+import com.utility.tasklist.tasklist_wrapper.grpc.PublishRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.SearchItem;
+import com.utility.tasklist.tasklist_wrapper.grpc.SearchRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.StartRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.WrapperGrpc;
+
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+
+/**
+ * The same operations through both front doors of one running wrapper: JSON over HTTP into
+ * MessageController, and protobuf over a single HTTP/2 channel into WrapperGrpcService. Both end
+ * at the in-process Camunda stub, so the difference is the cost of the front door itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class FrontDoorBenchmark {
+
+    private static final String MESSAGE = "{\"name\":\"order-paid\",\"correlationKey\":\"ORD123\"}";
+    private static final String START = "{\"processDefinitionId\":\"benchmark\",\"variables\":{\"orderId\":\"ORD123\"}}";
+
+    /** Process instances in a search response */
+    @Param({"100", "5000"})
+    public int searchItems;
+
+    private CamundaStub stub;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private ManagedChannel channel;
+    private WrapperGrpc.WrapperBlockingStub grpc;
+    private String search;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stub = new CamundaStub().startIdentity().startOrchestration().startOperate(searchItems);
+        context = new SpringApplicationBuilder(TasklistWrapperApplication.class)
+                .properties(
+                        "server.port=0",
+                        "wrapper.grpc.enabled=true",
+                        "wrapper.grpc.port=0",
+                        "camunda.identity.token-url=" + stub.tokenUrl(),
+                        "logging.level.root=WARN")
+                .run();
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newHttpClient();
+        channel = Grpc.newChannelBuilderForAddress("localhost", context.getBean(WrapperGrpcServer.class).getPort(),
+                InsecureChannelCredentials.create()).build();
+        grpc = WrapperGrpc.newBlockingStub(channel);
+        search = "{\"filter\":{\"state\":\"ACTIVE\"},\"size\":" + searchItems + "}";
+    }
+
+    @Benchmark
+    public byte[] restPublishMessage() throws Exception {
+        return post("/messages/publication", MESSAGE);
+    }
+
+    @Benchmark
+    public OperationResult grpcPublishMessage() {
+        return grpc.publishMessage(PublishRequest.newBuilder().setName("order-paid").setCorrelationKey("ORD123").build());
+    }
+
+    @Benchmark
+    public byte[] restCorrelateMessage() throws Exception {
+        return post("/messages/correlation", MESSAGE);
+    }
+
+    @Benchmark
+    public OperationResult grpcCorrelateMessage() {
+        return grpc.correlateMessage(CorrelateRequest.newBuilder().setName("order-paid").setCorrelationKey("ORD123").build());
+    }
+
+    @Benchmark
+    public byte[] restStartProcess() throws Exception {
+        return post("/process-instances", START);
+    }
+
+    @Benchmark
+    public OperationResult grpcStartProcess() {
+        return grpc.startProcess(StartRequest.newBuilder()
+                .setProcessDefinitionId("benchmark")
+                .setVariablesJson("{\"orderId\":\"ORD123\"}")
+                .build());
+    }
+
+    @Benchmark
+    public byte[] restSearchProcessInstances() throws Exception {
+        return post("/v1/process-instances/search", search);
+    }
+
+    @Benchmark
+    public void grpcSearchProcessInstances(Blackhole blackhole) {
+        Iterator<SearchItem> items = grpc.searchProcessInstances(SearchRequest.newBuilder().setRequestJson(search).build());
+        while (items.hasNext()) {
+            blackhole.consume(items.next());
+        }
+    }
+
+    private byte[] post(String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        client.close();
+        context.close();
+        stub.close();
+    }
+}
@@ -0,0 +1,73 @@
+package com.utility.tasklist.tasklist_wrapper.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.utility.tasklist.tasklist_wrapper.dto.EvaluateDecisionRequest;
+import com.utility.tasklist.tasklist_wrapper.service.LocalDecisionEngine;
+
+/**
+ * In-process decision evaluation through LocalDecisionEngine, including the Zeebe-shaped
+ * response, for decisions of the conformance corpus (src/test/resources/decisions): a single
+ * value (UNIQUE), a map of two outputs (FIRST) and a list (COLLECT). Compare with the remote
+ * evaluation latency of the gateway to see what a local decision saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalDecisionBenchmark {
+
+    private static final Map<String, Map<String, Object>> INPUTS = Map.of(
+            "discount", Map.of("customerType", "business"),
+            "shipping", Map.of("weight", 12),
+            "approvers", Map.of("amount", 50000));
+
+    @Param({"discount", "shipping", "approvers"})
+    public String decisionId;
+
+    private LocalDecisionEngine engine;
+    private EvaluateDecisionRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        engine = new LocalDecisionEngine(null, objectMapper, true, List.of());
+        ObjectNode definition = objectMapper.createObjectNode()
+                .put("key", 2251799813685000L)
+                .put("decisionId", decisionId)
+                .put("name", decisionId)
+                .put("version", 1)
+                .put("decisionRequirementsId", decisionId + "-drg")
+                .put("decisionRequirementsKey", 2251799813685001L)
+                .put("tenantId", "<default>");
+        try (InputStream dmn = getClass().getClassLoader().getResourceAsStream("decisions/" + decisionId + ".dmn")) {
+            engine.register(definition, dmn.readAllBytes());
+        }
+        request = new EvaluateDecisionRequest(null, "2251799813685000", null, INPUTS.get(decisionId));
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        return engine.evaluate(request).block();
+    }
+}
@@ -0,0 +1,93 @@
+package com.utility.tasklist.tasklist_wrapper.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.utility.tasklist.tasklist_wrapper.service.PublicationJournal;
+
+/**
+ * Sustained appends to the publication outbox journal from 4 threads, while a reader drains
+ * and acknowledges entries the way the outbox drainer does, so segments keep rolling over and
+ * being deleted. Sample mode reports the append latency percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class PublicationJournalBenchmark {
+
+    /** Size of a serialized publicationMessageRequest with a handful of variables, and a large one */
+    @Param({"512", "8192"})
+    public int payloadBytes;
+
+    @Param({"false", "true"})
+    public boolean fsync;
+
+    private Path directory;
+    private PublicationJournal journal;
+    private byte[] payload;
+    private volatile boolean draining;
+    private Thread drainer;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new PublicationJournal(directory, 16 * 1024 * 1024, fsync);
+        payload = new byte[payloadBytes];
+        draining = true;
+        drainer = Thread.ofPlatform().daemon().start(() -> {
+            try {
+                while (draining) {
+                    List<PublicationJournal.Entry> entries = journal.read(256);
+                    if (entries.isEmpty()) {
+                        LockSupport.parkNanos(100_000);
+                    } else {
+                        journal.acknowledge(entries.get(entries.size() - 1).sequence());
+                    }
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        draining = false;
+        drainer.join();
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long append() throws IOException {
+        return journal.append(payload);
+    }
+}
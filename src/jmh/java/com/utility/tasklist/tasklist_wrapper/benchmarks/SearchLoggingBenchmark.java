@@ -0,0 +1,137 @@
+package com.utility.tasklist.tasklist_wrapper.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import com.utility.tasklist.tasklist_wrapper.config.UrlConfig;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Logging cost of a process instance search with a large response, before and after the
+ * logging rework.
+ * <ul>
+ *   <li>{@code stdoutDump}: the old behaviour, printing the request and the whole response
+ *       synchronously (to a file here, so the JMH output stays readable)</li>
+ *   <li>{@code sampledLog}: the current behaviour, a disabled debug line plus the sampled
+ *       one-line request log going through an async appender</li>
+ * </ul>
+ * Both consume the response bytes the same way a pass-through does, so only logging differs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchLoggingBenchmark {
+
+    @Param({"100", "5000"})
+    public int searchItems;
+
+    private String request;
+    private byte[] response;
+    private File logDirectory;
+    private PrintStream stdout;
+    private LoggerContext loggerContext;
+    private Logger serviceLogger;
+    private Logger requestLogger;
+
+    @Setup
+    public void setUp() throws Exception {
+        request = "{\"filter\":{\"state\":\"ACTIVE\",\"bpmnProcessId\":\"customer_onboarding\"},\"size\":" + searchItems + "}";
+        response = CamundaStub.searchResponse(searchItems);
+        logDirectory = Files.createTempDirectory("search-logging").toFile();
+        stdout = new PrintStream(new FileOutputStream(new File(logDirectory, "stdout.log")), true, StandardCharsets.UTF_8);
+
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        serviceLogger = loggerContext.getLogger("benchmark.service");
+        serviceLogger.setLevel(Level.INFO);
+        requestLogger = loggerContext.getLogger("benchmark.request-log");
+        requestLogger.setLevel(Level.INFO);
+        requestLogger.setAdditive(false);
+        requestLogger.addAppender(asyncFileAppender(new File(logDirectory, "requests.log")));
+    }
+
+    /** The appender set-up of logback-spring.xml, writing to a file instead of the console */
+    private AsyncAppender asyncFileAppender(File file) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %logger : %m%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(loggerContext);
+        fileAppender.setFile(file.getAbsolutePath());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(loggerContext);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.addAppender(fileAppender);
+        async.start();
+        return async;
+    }
+
+    @Benchmark
+    public int stdoutDump() {
+        stdout.println("Request sent to Camunda API:\n" + request);
+        String body = new String(response, StandardCharsets.UTF_8);
+        stdout.println("Response from Camunda API:\n" + body);
+        return passThrough() + body.length();
+    }
+
+    @Benchmark
+    public int sampledLog() {
+        long start = System.nanoTime();
+        serviceLogger.debug("Searching process instances via API at {}", UrlConfig.ZEEBEE_PROCESS_PROCESS_INSTANCE_SEARCH_URL);
+        int written = passThrough();
+        if (ThreadLocalRandom.current().nextDouble() < 0.01) {
+            requestLogger.info("method={} uri={} status={} durationMs={}", "POST", "/v1/process-instances/search", 200,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return written;
+    }
+
+    /** Touches every response byte, as copying it to the client would */
+    private int passThrough() {
+        int checksum = 0;
+        for (byte b : response) {
+            checksum += b;
+        }
+        return checksum;
+    }
+
+    @TearDown
+    public void tearDown() {
+        stdout.close();
+        requestLogger.detachAndStopAllAppenders();
+    }
+}
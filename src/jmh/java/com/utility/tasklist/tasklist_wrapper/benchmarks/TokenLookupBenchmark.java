@@ -0,0 +1,77 @@
+package com.utility.tasklist.tasklist_wrapper.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.utility.tasklist.tasklist_wrapper.service.CamundaTokenService;
+
+/**
+ * Token lookup on the request path: every upstream call asks for the current token, which is
+ * served from the cached snapshot. The contended variant runs on all cores at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenLookupBenchmark {
+
+    private CamundaStub stub;
+    private CamundaTokenService tokenService;
+
+    @Setup
+    public void setUp() throws Exception {
+        stub = new CamundaStub().startIdentity();
+        tokenService = tokenService(stub.tokenUrl());
+        // the first call fetches; every measured call is served from the cache
+        tokenService.getAccessToken();
+    }
+
+    /** A token service configured like the application, pointed at the stub */
+    static CamundaTokenService tokenService(String tokenUrl) {
+        CamundaTokenService service = new CamundaTokenService();
+        ReflectionTestUtils.setField(service, "tokenUrl", tokenUrl);
+        ReflectionTestUtils.setField(service, "clientId", "benchmark");
+        ReflectionTestUtils.setField(service, "clientSecret", "benchmark");
+        ReflectionTestUtils.setField(service, "refreshBefore", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(service, "refreshRetryDelay", Duration.ofSeconds(5));
+        return service;
+    }
+
+    @Benchmark
+    public String getAccessToken() {
+        return tokenService.getAccessToken();
+    }
+
+    @Benchmark
+    public String accessToken() {
+        return tokenService.accessToken().block();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String getAccessTokenContended() {
+        return tokenService.getAccessToken();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(tokenService, "shutdown");
+        stub.close();
+    }
+}
@@ -0,0 +1,84 @@
+package com.utility.tasklist.tasklist_wrapper.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.utility.tasklist.tasklist_wrapper.service.CamundaTokenService;
+
+/**
+ * Token lookup latency while a refresh is stalled at a slow token endpoint. A background thread
+ * keeps a refresh in flight the whole time; the lookups should stay at cache-hit latency instead
+ * of waiting out the endpoint. Compare the percentiles with TokenLookupBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenRefreshStallBenchmark {
+
+    /** How long the token endpoint takes to answer */
+    @Param({"50", "500"})
+    public int identityLatencyMillis;
+
+    private CamundaStub stub;
+    private CamundaTokenService tokenService;
+    private volatile boolean refreshing;
+    private Thread refresher;
+
+    @Setup
+    public void setUp() throws Exception {
+        stub = new CamundaStub().startIdentity(Duration.ofMillis(identityLatencyMillis));
+        tokenService = TokenLookupBenchmark.tokenService(stub.tokenUrl());
+        tokenService.getAccessToken();
+
+        refreshing = true;
+        refresher = Thread.ofPlatform().daemon().start(() -> {
+            while (refreshing) {
+                CompletableFuture<?> refresh = ReflectionTestUtils.invokeMethod(tokenService, "refresh");
+                refresh.join();
+            }
+        });
+    }
+
+    @Benchmark
+    public String getAccessToken() {
+        return tokenService.getAccessToken();
+    }
+
+    @Benchmark
+    public String accessToken() {
+        return tokenService.accessToken().block();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String getAccessTokenContended() {
+        return tokenService.getAccessToken();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        refreshing = false;
+        refresher.join();
+        ReflectionTestUtils.invokeMethod(tokenService, "shutdown");
+        stub.close();
+    }
+}
@@ -0,0 +1,94 @@
+package com.utility.tasklist.tasklist_wrapper.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.utility.tasklist.tasklist_wrapper.config.UpstreamProperties;
+import com.utility.tasklist.tasklist_wrapper.config.UrlConfig;
+import com.utility.tasklist.tasklist_wrapper.config.WebClientConfig;
+import com.utility.tasklist.tasklist_wrapper.service.CamundaTokenService;
+
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * A publication through the wrapper's orchestration WebClient (token and metrics filters,
+ * pooled connector with timeouts) next to the same call on a bare WebClient; the difference
+ * is the cost of the filter chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebClientFilterBenchmark {
+
+    private static final String PUBLICATION = "{\"name\":\"order-paid\",\"correlationKey\":\"ORD123\",\"timeToLive\":0}";
+
+    private CamundaStub stub;
+    private CamundaTokenService tokenService;
+    private ConnectionProvider wrapperConnections;
+    private ConnectionProvider bareConnections;
+    private WebClient wrapperClient;
+    private WebClient bareClient;
+
+    @Setup
+    public void setUp() throws Exception {
+        stub = new CamundaStub().startIdentity().startOrchestration();
+        tokenService = TokenLookupBenchmark.tokenService(stub.tokenUrl());
+
+        WebClientConfig config = new WebClientConfig();
+        ReflectionTestUtils.setField(config, "camundaTokenService", tokenService);
+        UpstreamProperties properties = new UpstreamProperties();
+        wrapperConnections = config.orchestrationConnectionProvider(properties);
+        wrapperClient = config.orchestrationWebClient(wrapperConnections, properties);
+
+        bareConnections = ConnectionProvider.create("bare");
+        bareClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(bareConnections)))
+                .build();
+    }
+
+    @Benchmark
+    public String wrapperClient() {
+        return publish(wrapperClient);
+    }
+
+    @Benchmark
+    public String bareClient() {
+        return publish(bareClient);
+    }
+
+    private String publish(WebClient client) {
+        return client.post()
+                .uri(UrlConfig.ZEEBEE_MESSAGE_PUBLISH_BASE_URL)
+                .header("Content-Type", "application/json")
+                .bodyValue(PUBLICATION)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block();
+    }
+
+    @TearDown
+    public void tearDown() {
+        wrapperConnections.dispose();
+        bareConnections.dispose();
+        ReflectionTestUtils.invokeMethod(tokenService, "shutdown");
+        stub.close();
+    }
+}
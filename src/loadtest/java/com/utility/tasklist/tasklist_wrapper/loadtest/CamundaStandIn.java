@@ -0,0 +1,194 @@
+package com.utility.tasklist.tasklist_wrapper.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the Camunda stack, so the wrapper can be load tested without one.
+ * <ul>
+ *   <li>:8088 orchestration REST API (v2): messages, process instances, variables, decisions</li>
+ *   <li>:8081 Operate (v1): searches, lookups, definitions and their XML</li>
+ *   <li>:18080 Keycloak client-credentials token endpoint</li>
+ *   <li>:26500 Zeebe gateway (gRPC), see {@link ZeebeGatewayStub}</li>
+ * </ul>
+ * Ports default to the ones in application.yaml. Every endpoint applies the same
+ * {@link FaultInjection}.
+ * <p>
+ * Options: --latency-ms=5 --jitter-ms=5 --error-rate=0.0 --search-items=50
+ * --orchestration-port=8088 --operate-port=8081 --identity-port=18080 --zeebe-port=26500
+ */
+public final class CamundaStandIn implements AutoCloseable {
+
+    private static final String TOKEN_PATH = "/auth/realms/camunda-platform/protocol/openid-connect/token";
+    private static final String TENANT = "<default>";
+
+    private final FaultInjection faults;
+    private final int searchItems;
+    private final AtomicLong keys = new AtomicLong(2251799813685249L);
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final ZeebeGatewayStub gateway;
+
+    public CamundaStandIn(Options options) throws IOException {
+        this.faults = FaultInjection.from(options);
+        this.searchItems = options.intValue("search-items", 50);
+
+        HttpServer identity = server(options.intValue("identity-port", 18080));
+        identity.createContext(TOKEN_PATH, handler(body ->
+                "{\"access_token\":\"load-test-token\",\"expires_in\":300,\"token_type\":\"Bearer\"}"));
+
+        HttpServer orchestration = server(options.intValue("orchestration-port", 8088));
+        orchestration.createContext("/v2/messages/publication", handler(body ->
+                "{\"key\":\"" + keys.incrementAndGet() + "\",\"tenantId\":\"" + TENANT + "\"}"));
+        orchestration.createContext("/v2/messages/correlation", handler(body ->
+                "{\"key\":\"" + keys.incrementAndGet() + "\",\"tenantId\":\"" + TENANT + "\",\"processInstanceKey\":\""
+                        + keys.incrementAndGet() + "\"}"));
+        orchestration.createContext("/v2/process-instances", exchange -> {
+            // POST /v2/process-instances and POST /v2/process-instances/{key}/cancellation
+            String path = exchange.getRequestURI().getPath();
+            respond(exchange, path.endsWith("/cancellation") ? 204 : 200, path.endsWith("/cancellation") ? null
+                    : "{\"processDefinitionKey\":\"2251799813685249\",\"processDefinitionId\":\"load_test\","
+                    + "\"processDefinitionVersion\":1,\"processInstanceKey\":\"" + keys.incrementAndGet()
+                    + "\",\"tenantId\":\"" + TENANT + "\"}");
+        });
+        orchestration.createContext("/v2/element-instances", exchange -> respond(exchange, 204, null));
+        orchestration.createContext("/v2/decision-definitions/evaluation", handler(body ->
+                "{\"decisionDefinitionId\":\"load_test\",\"decisionDefinitionKey\":\"2251799813685260\","
+                        + "\"decisionDefinitionName\":\"Load test\",\"decisionDefinitionVersion\":1,"
+                        + "\"decisionRequirementsId\":\"load_test_drg\",\"decisionRequirementsKey\":\"2251799813685259\","
+                        + "\"output\":\"\\\"approved\\\"\",\"failedDecisionDefinitionId\":\"\",\"failureMessage\":\"\","
+                        + "\"tenantId\":\"" + TENANT + "\",\"decisionInstanceKey\":\"" + keys.incrementAndGet() + "\"}"));
+
+        HttpServer operate = server(options.intValue("operate-port", 8081));
+        operate.createContext("/v1/process-instances/search", handler(body -> page(body, this::processInstance)));
+        operate.createContext("/v1/variables/search", handler(body -> page(body, this::variable)));
+        operate.createContext("/v1/process-instances/", handler(body -> processInstance(keys.incrementAndGet())));
+        operate.createContext("/", exchange -> {
+            // the wrapper's definition URLs contain a double slash (//v1/process-definitions/...)
+            String path = exchange.getRequestURI().getPath().replaceAll("/+", "/");
+            if (path.startsWith("/v1/process-definitions/") && path.endsWith("/xml")) {
+                respond(exchange, 200, bpmn(), "text/xml");
+            } else if (path.startsWith("/v1/process-definitions/")) {
+                respond(exchange, 200, "{\"key\":2251799813685249,\"name\":\"Load test\",\"version\":1,"
+                        + "\"bpmnProcessId\":\"load_test\",\"tenantId\":\"" + TENANT + "\"}");
+            } else {
+                respond(exchange, 404, "{\"message\":\"not emulated: " + path + "\"}");
+            }
+        });
+
+        this.gateway = new ZeebeGatewayStub(options.intValue("zeebe-port", 26500), faults);
+    }
+
+    /**
+     * One page of search results; requests that continue with searchAfter get the empty
+     * last page, so the wrapper's streaming endpoints stop after one page.
+     */
+    private String page(String request, Function<Long, String> item) {
+        if (request.contains("\"searchAfter\"")) {
+            return "{\"items\":[],\"sortValues\":[],\"total\":" + searchItems + "}";
+        }
+        StringBuilder page = new StringBuilder("{\"items\":[");
+        long last = 0;
+        for (int i = 0; i < searchItems; i++) {
+            last = keys.incrementAndGet();
+            if (i > 0) {
+                page.append(',');
+            }
+            page.append(item.apply(last));
+        }
+        return page.append("],\"sortValues\":[").append(last).append("],\"total\":").append(searchItems).append('}').toString();
+    }
+
+    private String processInstance(long key) {
+        return "{\"key\":" + key + ",\"processVersion\":1,\"bpmnProcessId\":\"load_test\",\"startDate\":\"2024-05-14T09:12:44.123+0000\","
+                + "\"state\":\"ACTIVE\",\"incident\":false,\"processDefinitionKey\":2251799813685249,\"tenantId\":\"" + TENANT + "\"}";
+    }
+
+    private String variable(long key) {
+        return "{\"key\":" + key + ",\"processInstanceKey\":2251799813685253,\"scopeKey\":2251799813685253,"
+                + "\"name\":\"orderId\",\"value\":\"\\\"ORD" + key + "\\\"\",\"truncated\":false,\"tenantId\":\"" + TENANT + "\"}";
+    }
+
+    private static String bpmn() {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?><bpmn:definitions xmlns:bpmn=\"http://www.omg.org/spec/BPMN/20100524/MODEL\""
+                + " id=\"load_test_definitions\" targetNamespace=\"http://bpmn.io/schema/bpmn\"><bpmn:process id=\"load_test\""
+                + " isExecutable=\"true\"><bpmn:startEvent id=\"start\"/><bpmn:endEvent id=\"end\"/>"
+                + "<bpmn:sequenceFlow id=\"flow\" sourceRef=\"start\" targetRef=\"end\"/></bpmn:process></bpmn:definitions>";
+    }
+
+    private HttpServer server(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        servers.add(server);
+        return server;
+    }
+
+    /** A 200 JSON handler computing its body from the request body */
+    private HttpHandler handler(Function<String, String> body) {
+        return exchange -> {
+            String request;
+            try (InputStream in = exchange.getRequestBody()) {
+                request = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            respond(exchange, 200, body.apply(request));
+        };
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, body, "application/json");
+    }
+
+    /** Applies the injected latency and errors, then answers */
+    private void respond(HttpExchange exchange, int status, String body, String contentType) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            try {
+                Thread.sleep(faults.delayMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (faults.fail()) {
+                status = 503;
+                body = "{\"title\":\"UNAVAILABLE\",\"detail\":\"injected failure\"}";
+                contentType = "application/json";
+            }
+            if (body == null) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        servers.forEach(server -> server.stop(0));
+        gateway.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        CountDownLatch stopped = new CountDownLatch(1);
+        try (CamundaStandIn standIn = new CamundaStandIn(options)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(stopped::countDown));
+            System.out.println("Camunda stand-in running with " + standIn.faults + "; Ctrl+C to stop");
+            stopped.await();
+        }
+    }
+}
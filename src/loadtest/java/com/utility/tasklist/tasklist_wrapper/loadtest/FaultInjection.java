@@ -0,0 +1,28 @@
+package com.utility.tasklist.tasklist_wrapper.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency and error injection applied by every stand-in endpoint.
+ *
+ * @param latencyMillis base delay before a response
+ * @param jitterMillis  random extra delay, uniformly 0..jitter
+ * @param errorRate     share of requests answered with an error (HTTP 503, gRPC UNAVAILABLE)
+ */
+record FaultInjection(long latencyMillis, long jitterMillis, double errorRate) {
+
+    static FaultInjection from(Options options) {
+        return new FaultInjection(
+                options.longValue("latency-ms", 5),
+                options.longValue("jitter-ms", 5),
+                options.doubleValue("error-rate", 0.0));
+    }
+
+    long delayMillis() {
+        return latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+    }
+
+    boolean fail() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+}
@@ -0,0 +1,309 @@
+package com.utility.tasklist.tasklist_wrapper.loadtest;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Closed-loop load driver for the wrapper: {@code concurrency} virtual-thread workers send
+ * requests back to back, each picking a route of MessageController by weight.
+ * After the warm-up, latency is recorded per route in HdrHistograms, and the wrapper's CPU,
+ * heap and thread count are sampled from /actuator/prometheus once per second.
+ * <p>
+ * The report is printed and written as JSON to {@code results/<label>-<timestamp>.json}, so
+ * runs of different wrapper configurations can be compared.
+ * <p>
+ * Options: --target=http://localhost:5174 --concurrency=64 --warmup=10s --duration=60s
+ * --label=default --results=loadtest-results --bulk-size=20
+ * --routes=publication:5,correlation:5,... (default: every route, weight 1)
+ */
+public final class LoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final String target;
+    private final int bulkSize;
+    private final HttpClient client;
+
+    /** A MessageController route with its share of the load and its latency record */
+    private record Route(String name, int weight, Supplier<HttpRequest> request, Recorder latency,
+                         AtomicLong errors) {
+    }
+
+    private LoadDriver(String target, int bulkSize) {
+        this.target = target;
+        this.bulkSize = bulkSize;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /** Every route of MessageController, with requests the stand-in can answer */
+    private Map<String, Supplier<HttpRequest>> allRoutes() {
+        Map<String, Supplier<HttpRequest>> routes = new LinkedHashMap<>();
+        routes.put("correlation", () -> post("/messages/correlation", correlation()));
+        routes.put("correlation-batch", () -> post("/messages/correlation/batch", array(bulkSize, this::correlation)));
+        routes.put("publication", () -> post("/messages/publication", publication()));
+        routes.put("publication-batch", () -> post("/messages/publication/batch", array(bulkSize, this::publication)));
+        routes.put("start", () -> post("/process-instances", start()));
+        routes.put("bulk-start-json", () -> post("/process-instances/bulk", array(bulkSize, this::start)));
+        routes.put("bulk-start-ndjson", () -> request("/process-instances/bulk")
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(lines(bulkSize, this::start)))
+                .build());
+        routes.put("ingest", () -> request("/ingest")
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(lines(bulkSize, this::operation)))
+                .build());
+        routes.put("cancel", () -> post("/process-instances/" + key() + "/cancellation", ""));
+        routes.put("element-variables", () -> put("/v2/element-instances/" + key() + "/variables",
+                "{\"variables\":{\"status\":\"checked\",\"attempt\":" + ThreadLocalRandom.current().nextInt(10) + "},\"local\":false}"));
+        routes.put("process-variables", () -> put("/process-instances/" + key() + "/variables",
+                "{\"variables\":{\"status\":\"checked\"},\"local\":false}"));
+        routes.put("variables-search", () -> post("/v1/variables/search", "{\"filter\":{\"name\":\"orderId\"},\"size\":50}"));
+        routes.put("process-instances-search", () -> post("/v1/process-instances/search", "{\"filter\":{\"state\":\"ACTIVE\"},\"size\":50}"));
+        routes.put("process-instances-stream", () -> post("/v1/process-instances/search/stream", "{\"filter\":{\"state\":\"ACTIVE\"},\"size\":50}"));
+        routes.put("variables-stream", () -> post("/v1/variables/search/stream", "{\"filter\":{\"name\":\"orderId\"},\"size\":50}"));
+        routes.put("process-instance", () -> request("/process-instances/" + key()).GET().build());
+        routes.put("process-definition", () -> request("/process-definitions/2251799813685249").GET().build());
+        routes.put("process-definition-xml", () -> request("/process-definitions/2251799813685249/xml").GET().build());
+        routes.put("evaluate-decision", () -> post("/v2/decision-definitions/evaluation",
+                "{\"decisionDefinitionKey\":\"2251799813685260\",\"variables\":{\"age\":" + ThreadLocalRandom.current().nextInt(18, 90) + "}}"));
+        return routes;
+    }
+
+    private String correlation() {
+        return "{\"name\":\"load-test\",\"correlationKey\":\"" + key() + "\"}";
+    }
+
+    private String publication() {
+        return "{\"name\":\"load-test\",\"correlationKey\":\"" + key() + "\",\"timeToLive\":0}";
+    }
+
+    private String start() {
+        return "{\"processDefinitionId\":\"load_test\",\"variables\":{\"orderId\":\"ORD" + key() + "\"}}";
+    }
+
+    /** A random line of the ingest stream */
+    private String operation() {
+        return switch (ThreadLocalRandom.current().nextInt(5)) {
+            case 0 -> "{\"op\":\"publish\",\"body\":" + publication() + "}";
+            case 1 -> "{\"op\":\"correlate\",\"body\":" + correlation() + "}";
+            case 2 -> "{\"op\":\"start\",\"body\":" + start() + "}";
+            case 3 -> "{\"op\":\"setVariables\",\"key\":\"" + key() + "\",\"body\":{\"variables\":{\"status\":\"checked\"}}}";
+            default -> "{\"op\":\"cancel\",\"key\":\"" + key() + "\"}";
+        };
+    }
+
+    private static String array(int size, Supplier<String> item) {
+        return IntStream.range(0, size).mapToObj(i -> item.get()).collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String lines(int size, Supplier<String> item) {
+        return IntStream.range(0, size).mapToObj(i -> item.get()).collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    private static long key() {
+        return 2251799813685249L + ThreadLocalRandom.current().nextLong(1_000_000);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(target + path)).timeout(Duration.ofSeconds(60));
+    }
+
+    private HttpRequest post(String path, String json) {
+        return request(path).header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest put(String path, String json) {
+        return request(path).header("Content-Type", "application/json").PUT(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private List<Route> routes(String selection) {
+        Map<String, Supplier<HttpRequest>> all = allRoutes();
+        List<Route> routes = new ArrayList<>();
+        if (selection == null || selection.isBlank()) {
+            all.forEach((name, request) -> routes.add(route(name, 1, request)));
+            return routes;
+        }
+        for (String entry : selection.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Supplier<HttpRequest> request = all.get(parts[0]);
+            if (request == null) {
+                throw new IllegalArgumentException("Unknown route " + parts[0] + ", known: " + all.keySet());
+            }
+            routes.add(route(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 1, request));
+        }
+        return routes;
+    }
+
+    private static Route route(String name, int weight, Supplier<HttpRequest> request) {
+        return new Route(name, weight, request, new Recorder(HIGHEST_TRACKABLE_NANOS, 3), new AtomicLong());
+    }
+
+    /** Picks routes in proportion to their weights */
+    private static Route pick(List<Route> routes, int totalWeight) {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Route route : routes) {
+            ticket -= route.weight();
+            if (ticket < 0) {
+                return route;
+            }
+        }
+        return routes.get(routes.size() - 1);
+    }
+
+    private void send(Route route) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = client.send(route.request().get(), HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            if (response.statusCode() >= 400) {
+                route.errors().incrementAndGet();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception ex) {
+            route.errors().incrementAndGet();
+        }
+        route.latency().recordValue(Math.min(System.nanoTime() - start, HIGHEST_TRACKABLE_NANOS));
+    }
+
+    private Map<String, Object> run(List<Route> routes, int concurrency, Duration warmup, Duration duration) throws Exception {
+        int totalWeight = routes.stream().mapToInt(Route::weight).sum();
+        long end = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+        ResourceSampler resources = new ResourceSampler(client, target);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                        send(pick(routes, totalWeight));
+                    }
+                });
+            }
+            System.out.printf("Warming up for %s with %d workers%n", warmup, concurrency);
+            Thread.sleep(warmup.toMillis());
+            // drop what was recorded during the warm-up
+            routes.forEach(route -> {
+                route.latency().reset();
+                route.errors().set(0);
+            });
+            resources.start();
+            System.out.printf("Measuring for %s%n", duration);
+        }
+        resources.stop();
+        return report(routes, duration, resources);
+    }
+
+    private static Map<String, Object> report(List<Route> routes, Duration duration, ResourceSampler resources) {
+        double seconds = duration.toMillis() / 1000.0;
+        Map<String, Object> perRoute = new LinkedHashMap<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long totalErrors = 0;
+        for (Route route : routes) {
+            Histogram histogram = route.latency().getIntervalHistogram();
+            total.add(histogram);
+            totalErrors += route.errors().get();
+            perRoute.put(route.name(), stats(histogram, route.errors().get(), seconds));
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("total", stats(total, totalErrors, seconds));
+        report.put("routes", perRoute);
+        report.put("wrapperResources", resources.summary());
+        return report;
+    }
+
+    private static Map<String, Object> stats(Histogram histogram, long errors, double seconds) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", histogram.getTotalCount());
+        stats.put("errors", errors);
+        stats.put("throughputPerSecond", round(histogram.getTotalCount() / seconds));
+        stats.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        stats.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+        stats.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        stats.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        stats.put("maxMs", millis(histogram.getMaxValue()));
+        return stats;
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(String label, Map<String, Object> report) {
+        System.out.printf("%nWrapper configuration: %s%n", label);
+        System.out.printf("%-26s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "route", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Map<String, Object> rows = new LinkedHashMap<>((Map<String, Object>) report.get("routes"));
+        rows.put("TOTAL", report.get("total"));
+        rows.forEach((name, value) -> {
+            Map<String, Object> stats = (Map<String, Object>) value;
+            System.out.printf("%-26s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+                    stats.get("requests"), stats.get("errors"), stats.get("throughputPerSecond"),
+                    stats.get("p50Ms"), stats.get("p90Ms"), stats.get("p99Ms"), stats.get("p999Ms"), stats.get("maxMs"));
+        });
+        System.out.printf("Wrapper resources: %s%n", report.get("wrapperResources"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        String target = options.value("target", "http://localhost:5174");
+        String label = options.value("label", "default");
+        int concurrency = options.intValue("concurrency", 64);
+        Duration warmup = options.duration("warmup", Duration.ofSeconds(10));
+        Duration duration = options.duration("duration", Duration.ofSeconds(60));
+
+        LoadDriver driver = new LoadDriver(target, options.intValue("bulk-size", 20));
+        List<Route> routes = driver.routes(options.value("routes", null));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", label);
+        result.put("target", target);
+        result.put("concurrency", concurrency);
+        result.put("warmupSeconds", warmup.toSeconds());
+        result.put("durationSeconds", duration.toSeconds());
+        result.putAll(driver.run(routes, concurrency, warmup, duration));
+        driver.client.close();
+
+        print(label, result);
+        File directory = new File(options.value("results", "loadtest-results"));
+        directory.mkdirs();
+        File file = new File(directory, label + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+        System.out.printf("Report written to %s%n", file);
+    }
+}
@@ -0,0 +1,93 @@
+package com.utility.tasklist.tasklist_wrapper.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the wrapper's resource usage from its Prometheus endpoint once per second:
+ * process CPU, heap in use and live threads. Sampling failures are counted, not fatal, so a
+ * wrapper without Actuator still gets a load report.
+ */
+final class ResourceSampler {
+
+    private final HttpClient client;
+    private final URI endpoint;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private int samples;
+    private int failures;
+    private double cpuSum;
+    private double cpuMax;
+    private double heapMax;
+    private double threadsMax;
+
+    ResourceSampler(HttpClient client, String target) {
+        this.client = client;
+        this.endpoint = URI.create(target + "/actuator/prometheus");
+    }
+
+    void start() {
+        scheduler.scheduleAtFixedRate(this::sample, 0, 1, TimeUnit.SECONDS);
+    }
+
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void sample() {
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(endpoint).timeout(Duration.ofSeconds(2)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                failures++;
+                return;
+            }
+            double cpu = 0;
+            double heap = 0;
+            double threads = 0;
+            for (String line : response.body().split("\n")) {
+                if (line.startsWith("process_cpu_usage")) {
+                    cpu = value(line);
+                } else if (line.startsWith("jvm_memory_used_bytes") && line.contains("area=\"heap\"")) {
+                    heap += value(line);
+                } else if (line.startsWith("jvm_threads_live_threads")) {
+                    threads = value(line);
+                }
+            }
+            samples++;
+            cpuSum += cpu;
+            cpuMax = Math.max(cpuMax, cpu);
+            heapMax = Math.max(heapMax, heap);
+            threadsMax = Math.max(threadsMax, threads);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            failures++;
+        }
+    }
+
+    private static double value(String line) {
+        return Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+    }
+
+    Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("samples", samples);
+        summary.put("failedSamples", failures);
+        summary.put("cpuAverage", samples == 0 ? 0 : Math.round(cpuSum / samples * 1000) / 1000.0);
+        summary.put("cpuMax", Math.round(cpuMax * 1000) / 1000.0);
+        summary.put("heapMaxMiB", Math.round(heapMax / (1024 * 1024)));
+        summary.put("liveThreadsMax", (long) threadsMax);
+        return summary;
+    }
+}
@@ -0,0 +1,90 @@
+package com.utility.tasklist.tasklist_wrapper.loadtest;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.camunda.zeebe.gateway.protocol.GatewayGrpc;
+import io.camunda.zeebe.gateway.protocol.GatewayOuterClass.CancelProcessInstanceRequest;
+import io.camunda.zeebe.gateway.protocol.GatewayOuterClass.CancelProcessInstanceResponse;
+import io.camunda.zeebe.gateway.protocol.GatewayOuterClass.CreateProcessInstanceRequest;
+import io.camunda.zeebe.gateway.protocol.GatewayOuterClass.CreateProcessInstanceResponse;
+import io.camunda.zeebe.gateway.protocol.GatewayOuterClass.PublishMessageRequest;
+import io.camunda.zeebe.gateway.protocol.GatewayOuterClass.PublishMessageResponse;
+import io.camunda.zeebe.gateway.protocol.GatewayOuterClass.SetVariablesRequest;
+import io.camunda.zeebe.gateway.protocol.GatewayOuterClass.SetVariablesResponse;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Zeebe gateway stand-in for the commands the wrapper sends over gRPC: publish message,
+ * create process instance, cancel process instance and set variables. Responses are delayed
+ * on a scheduler, so injected latency does not hold a gRPC thread.
+ */
+final class ZeebeGatewayStub extends GatewayGrpc.GatewayImplBase implements AutoCloseable {
+
+    private static final String TENANT = "<default>";
+
+    private final FaultInjection faults;
+    private final AtomicLong keys = new AtomicLong(2251799813685249L);
+    private final ScheduledExecutorService delays = Executors.newScheduledThreadPool(2);
+    private final Server server;
+
+    ZeebeGatewayStub(int port, FaultInjection faults) throws IOException {
+        this.faults = faults;
+        this.server = ServerBuilder.forPort(port).addService(this).build().start();
+    }
+
+    @Override
+    public void publishMessage(PublishMessageRequest request, StreamObserver<PublishMessageResponse> observer) {
+        respond(observer, () -> PublishMessageResponse.newBuilder()
+                .setKey(keys.incrementAndGet())
+                .setTenantId(TENANT)
+                .build());
+    }
+
+    @Override
+    public void createProcessInstance(CreateProcessInstanceRequest request,
+                                      StreamObserver<CreateProcessInstanceResponse> observer) {
+        respond(observer, () -> CreateProcessInstanceResponse.newBuilder()
+                .setProcessDefinitionKey(2251799813685249L)
+                .setBpmnProcessId(request.getBpmnProcessId())
+                .setVersion(1)
+                .setProcessInstanceKey(keys.incrementAndGet())
+                .setTenantId(TENANT)
+                .build());
+    }
+
+    @Override
+    public void cancelProcessInstance(CancelProcessInstanceRequest request,
+                                      StreamObserver<CancelProcessInstanceResponse> observer) {
+        respond(observer, CancelProcessInstanceResponse::getDefaultInstance);
+    }
+
+    @Override
+    public void setVariables(SetVariablesRequest request, StreamObserver<SetVariablesResponse> observer) {
+        respond(observer, () -> SetVariablesResponse.newBuilder().setKey(keys.incrementAndGet()).build());
+    }
+
+    private <T> void respond(StreamObserver<T> observer, Supplier<T> response) {
+        delays.schedule(() -> {
+            if (faults.fail()) {
+                observer.onError(Status.UNAVAILABLE.withDescription("injected failure").asRuntimeException());
+                return;
+            }
+            observer.onNext(response.get());
+            observer.onCompleted();
+        }, faults.delayMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        server.shutdownNow();
+        delays.shutdownNow();
+    }
+}
@@ -0,0 +1,42 @@
+package com.utility.tasklist.tasklist_wrapper.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Concurrency limits per upstream operation, bound from {@code wrapper.bulkheads.*}.
+ * Operations are publish, correlate, start, cancel, set-variables, search, lookup and evaluate.
+ * Calls beyond {@code max-concurrent} wait in a queue of {@code queue-depth}; a call finding the
+ * queue full is rejected with 429, one waiting longer than {@code queue-timeout} with 503.
+ */
+@Data
+@ConfigurationProperties(prefix = "wrapper.bulkheads")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    /** Limits of operations not listed under {@code operations} */
+    private Limits defaults = new Limits();
+
+    /** Limits per operation; fields left out take the built-in values, not {@code defaults} */
+    private Map<String, Limits> operations = new HashMap<>();
+
+    public Limits limits(String operation) {
+        return operations.getOrDefault(operation, defaults);
+    }
+
+    @Data
+    public static class Limits {
+        /** Calls sent upstream at the same time */
+        private int maxConcurrent = 64;
+        /** Calls waiting for a free slot; 0 rejects as soon as all slots are taken */
+        private int queueDepth = 128;
+        /** How long a call may wait for a free slot */
+        private Duration queueTimeout = Duration.ofSeconds(1);
+    }
+}
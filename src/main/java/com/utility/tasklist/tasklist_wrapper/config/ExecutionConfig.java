@@ -0,0 +1,55 @@
+package com.utility.tasklist.tasklist_wrapper.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Execution mode of the wrapper.
+ * With {@code spring.threads.virtual.enabled=true} Spring Boot already runs Tomcat request
+ * handling (and therefore the MessageController handlers) on virtual threads; this class
+ * makes the remaining blocking calls (e.g. joined Zeebe futures) follow the same switch.
+ * The transport used per broker operation is configured in {@link TransportProperties}, the
+ * concurrency allowed per upstream operation in {@link BulkheadProperties}, the durable
+ * publication outbox in {@link OutboxProperties}.
+ */
+@Configuration
+@EnableConfigurationProperties({TransportProperties.class, BulkheadProperties.class, OutboxProperties.class})
+public class ExecutionConfig implements WebMvcConfigurer {
+
+    /**
+     * Scheduler for work that still blocks a thread.
+     * A virtual thread per task when virtual threads are enabled, Reactor's bounded elastic pool otherwise.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "virtual-blocking");
+        }
+        // the shared instance ignores dispose(), so the destroy method is safe here too
+        return Schedulers.boundedElastic();
+    }
+
+    /**
+     * Runs MVC async work (pass-through bodies, NDJSON and other streamed responses) on a virtual
+     * thread per response. These writes block on the servlet stream and wait on the upstream for
+     * as long as the response lasts, so Boot's default 8-thread applicationTaskExecutor would cap
+     * the number of concurrent streams and queue the rest. Upstream concurrency is limited by the
+     * bulkheads instead.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+    }
+}
@@ -0,0 +1,49 @@
+package com.utility.tasklist.tasklist_wrapper.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+/**
+ * Durable publication outbox, bound from {@code wrapper.outbox.*}.
+ * When enabled, {@code POST /messages/publication} appends the message to a local journal and
+ * answers 202; a background drainer publishes it, retrying until Camunda accepts it.
+ */
+@Data
+@ConfigurationProperties(prefix = "wrapper.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = false;
+
+    /** Directory of the journal segments and the checkpoint */
+    private String directory = "outbox";
+
+    /** Size of one memory-mapped journal segment */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /** Segments not yet fully published after which new messages are rejected with 429 */
+    private int maxSegments = 16;
+
+    /**
+     * Force every append to disk before acknowledging it. Without it, appends survive a crash of
+     * the wrapper (they are in the page cache) but not of the machine.
+     */
+    private boolean fsync = false;
+
+    /** Messages published concurrently per drained batch */
+    private int batchSize = 256;
+
+    /** How long the drainer sleeps when the journal is empty */
+    private Duration pollInterval = Duration.ofMillis(5);
+
+    /** First delay before a failed publication is retried; doubled up to {@code maxBackoff} */
+    private Duration initialBackoff = Duration.ofMillis(100);
+
+    private Duration maxBackoff = Duration.ofSeconds(30);
+
+    /** How long shutdown waits for the batch in flight; what is left is published after restart */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,117 @@
+package com.utility.tasklist.tasklist_wrapper.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * One key=value log line per request, for a sample of the traffic only.
+ * Requests slower than {@code slow-threshold} and 5xx responses are always logged. The request
+ * body is only captured when {@code include-body} is set, and then only for sampled requests and
+ * only up to {@code max-body-length} bytes; response bodies are never captured, so streamed
+ * responses stay streamed.
+ * <p>
+ * Handlers complete asynchronously, so the line is written when the async request completes.
+ */
+@Component
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
+
+    @Value("${wrapper.request-log.enabled:true}")
+    private boolean enabled;
+
+    /** Share of requests logged (0..1) */
+    @Value("${wrapper.request-log.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${wrapper.request-log.slow-threshold:1s}")
+    private Duration slowThreshold;
+
+    @Value("${wrapper.request-log.include-body:false}")
+    private boolean includeBody;
+
+    @Value("${wrapper.request-log.max-body-length:1024}")
+    private int maxBodyLength;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !logger.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        HttpServletRequest logged = sampled && includeBody
+                ? new ContentCachingRequestWrapper(request, maxBodyLength)
+                : request;
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        try {
+            chain.doFilter(logged, response);
+        } finally {
+            if (logged.isAsyncStarted()) {
+                // onComplete also follows a timeout or an error, so it is the only place that logs
+                logged.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(method, uri, logged, response, start, sampled);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(method, uri, logged, response, start, sampled);
+            }
+        }
+    }
+
+    private void log(String method, String uri, HttpServletRequest request, HttpServletResponse response,
+                     long start, boolean sampled) {
+        long nanos = System.nanoTime() - start;
+        int status = response.getStatus();
+        if (!sampled && nanos < slowThreshold.toNanos() && status < 500) {
+            return;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (request instanceof ContentCachingRequestWrapper cached) {
+            logger.info("method={} uri={} status={} durationMs={} body={}", method, uri, status, millis, body(cached));
+        } else {
+            logger.info("method={} uri={} status={} durationMs={}", method, uri, status, millis);
+        }
+    }
+
+    private String body(ContentCachingRequestWrapper request) {
+        byte[] content = request.getContentAsByteArray();
+        String body = new String(content, 0, Math.min(content.length, maxBodyLength), StandardCharsets.UTF_8);
+        return content.length >= maxBodyLength ? body + "...(truncated)" : body;
+    }
+}
@@ -0,0 +1,39 @@
+package com.utility.tasklist.tasklist_wrapper.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Transport choice per broker operation, bound from {@code wrapper.transport.*}.
+ * Operations are publish, start, cancel and set-variables; each can be pinned to
+ * rest or grpc, or left to the adaptive policy, which sends it over whichever healthy transport
+ * currently answers faster.
+ */
+@Data
+@ConfigurationProperties(prefix = "wrapper.transport")
+public class TransportProperties {
+
+    public enum Policy { REST, GRPC, ADAPTIVE }
+
+    /** Policy per operation; operations not listed here use their built-in default */
+    private Map<String, Policy> policy = new HashMap<>();
+
+    private Adaptive adaptive = new Adaptive();
+
+    @Data
+    public static class Adaptive {
+        /** Weight of the newest latency sample in the moving average (0..1) */
+        private double smoothing = 0.2;
+        /** Share of calls sent to the slower transport so its average stays current */
+        private double probeRatio = 0.05;
+        /** Consecutive transport failures after which a transport is set aside */
+        private int failureThreshold = 5;
+        /** How long a failing transport is set aside before it is tried again */
+        private Duration cooldown = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,48 @@
+package com.utility.tasklist.tasklist_wrapper.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Connection settings per upstream, bound from {@code wrapper.upstreams.*}.
+ * The orchestration REST API (:8088) and Operate (:8081) get separate pools so that
+ * slow Operate searches cannot exhaust the connections used for messages and process starts.
+ */
+@Data
+@ConfigurationProperties(prefix = "wrapper.upstreams")
+public class UpstreamProperties {
+
+    /** Camunda orchestration cluster REST API (v2), port 8088 */
+    private Upstream orchestration = new Upstream();
+
+    /** Operate REST API (v1), port 8081 */
+    private Upstream operate = new Upstream();
+
+    @Data
+    public static class Upstream {
+        /** Maximum open connections in the pool */
+        private int maxConnections = 200;
+        /** Maximum requests waiting for a connection before new ones are rejected */
+        private int pendingAcquireMaxCount = 1000;
+        /** How long a request may wait for a pooled connection */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        /** Idle connections are closed after this time */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        /** Connections are recycled after this time, whatever their state */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        /** Interval of the background eviction of idle/expired connections */
+        private Duration evictInBackground = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        /** Maximum time without any data read while a response is in progress */
+        private Duration readTimeout = Duration.ofSeconds(30);
+        /** Maximum time until the complete response has been received */
+        private Duration responseTimeout = Duration.ofSeconds(30);
+        /** Use HTTP/2 over cleartext (h2c), falling back to HTTP/1.1 */
+        private boolean http2 = false;
+        /** Export pool gauges (reactor.netty.connection.provider.*) to Micrometer */
+        private boolean metrics = true;
+    }
+}
@@ -19,4 +19,8 @@ public class UrlConfig {
 
     public static final String ZEEBEE_EVALUATE = "http://localhost:8088/v2/decision-definitions/evaluation";
 
+    // Decision lookups for local DMN evaluation
+    public static final String ZEEBEE_DECISION_DEFINITION_BY_KEY_URL = "http://localhost:8081/v1/decision-definitions/%s";
+    public static final String ZEEBEE_DECISION_REQUIREMENTS_AS_XML_URL = "http://localhost:8081/v1/decision-requirements/%s/xml";
+
 }
\ No newline at end of file
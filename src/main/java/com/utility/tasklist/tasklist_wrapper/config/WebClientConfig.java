@@ -1,35 +1,109 @@
 package com.utility.tasklist.tasklist_wrapper.config;
 
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.utility.tasklist.tasklist_wrapper.service.CamundaTokenService;
 
+import io.micrometer.core.instrument.Metrics;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One WebClient per upstream, each on its own pooled Reactor Netty connector
+ * configured from {@code wrapper.upstreams.*} (see {@link UpstreamProperties}).
+ * Responses are counted per upstream and status code in {@code wrapper.upstream.responses}.
+ */
 @Configuration
+@EnableConfigurationProperties(UpstreamProperties.class)
 public class WebClientConfig {
 
     @Autowired
     private CamundaTokenService camundaTokenService;
 
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider orchestrationConnectionProvider(UpstreamProperties properties) {
+        return connectionProvider("orchestration", properties.getOrchestration());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider operateConnectionProvider(UpstreamProperties properties) {
+        return connectionProvider("operate", properties.getOperate());
+    }
+
+    /** Client for the orchestration REST API on :8088 (messages, process instances, decisions) */
+    @Bean
+    public WebClient orchestrationWebClient(
+            @Qualifier("orchestrationConnectionProvider") ConnectionProvider connectionProvider,
+            UpstreamProperties properties) {
+        return webClient("orchestration", connectionProvider, properties.getOrchestration());
+    }
+
+    /** Client for the Operate API on :8081 (searches, instance and definition lookups) */
     @Bean
-    public WebClient webClient() {
+    public WebClient operateWebClient(
+            @Qualifier("operateConnectionProvider") ConnectionProvider connectionProvider,
+            UpstreamProperties properties) {
+        return webClient("operate", connectionProvider, properties.getOperate());
+    }
+
+    private ConnectionProvider connectionProvider(String name, UpstreamProperties.Upstream upstream) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(upstream.getMaxConnections())
+                .pendingAcquireMaxCount(upstream.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(upstream.getPendingAcquireTimeout())
+                .maxIdleTime(upstream.getMaxIdleTime())
+                .maxLifeTime(upstream.getMaxLifeTime())
+                .evictInBackground(upstream.getEvictInBackground())
+                .metrics(upstream.isMetrics())
+                .build();
+    }
+
+    private WebClient webClient(String name, ConnectionProvider connectionProvider, UpstreamProperties.Upstream upstream) {
+        long readTimeoutMillis = upstream.getReadTimeout().toMillis();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) upstream.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(upstream.getResponseTimeout())
+                // added per request; Reactor Netty removes it again when the connection returns to the pool
+                .doOnRequest((request, connection) ->
+                        connection.addHandlerLast(new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS)));
+        if (upstream.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
         return WebClient.builder()
-                .filter((request, next) -> {
-                    String token;
-                    try {
-                        token = camundaTokenService.getAccessToken();
-                    } catch (Exception ex) {
-                        throw new RuntimeException("Could not obtain access token for Camunda API", ex);
-                    }
-
-                    ClientRequest newRequest = ClientRequest.from(request)
-                            .header("Authorization", "Bearer " + token)
-                            .build();
-
-                    return next.exchange(newRequest);
-                }).build();
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter((request, next) -> camundaTokenService.accessToken()
+                        .onErrorMap(ex -> new RuntimeException("Could not obtain access token for Camunda API", ex))
+                        .flatMap(token -> {
+                            ClientRequest newRequest = ClientRequest.from(request)
+                                    .header("Authorization", "Bearer " + token)
+                                    .build();
+
+                            return next.exchange(newRequest);
+                        }))
+                .filter((request, next) -> next.exchange(request)
+                        .doOnNext(response -> countResponse(name, String.valueOf(response.statusCode().value())))
+                        .doOnError(ex -> countResponse(name, "none")))
+                .build();
+    }
+
+    /**
+     * Counts upstream responses by status code; "none" when no response was received.
+     */
+    private static void countResponse(String upstream, String status) {
+        Metrics.counter("wrapper.upstream.responses", "upstream", upstream, "status", status).increment();
     }
 }
@@ -1,65 +1,137 @@
 package com.utility.tasklist.tasklist_wrapper.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.utility.tasklist.tasklist_wrapper.dto.BatchItemResult;
 import com.utility.tasklist.tasklist_wrapper.dto.CorrelateMessageRequest;
 import com.utility.tasklist.tasklist_wrapper.dto.EvaluateDecisionRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.IngestOperation;
 import com.utility.tasklist.tasklist_wrapper.dto.ProcessInstancesRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.SearchProcessInstancesRequest;
 import com.utility.tasklist.tasklist_wrapper.dto.StartProcessInstanceRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.UpdateElementInstanceVariablesRequest;
 import com.utility.tasklist.tasklist_wrapper.dto.UpdateProcessInstanceVariablesRequest;
 import com.utility.tasklist.tasklist_wrapper.dto.publicationMessageRequest;
-import com.utility.tasklist.tasklist_wrapper.dto.SearchProcessInstancesRequest;
+import com.utility.tasklist.tasklist_wrapper.service.BulkheadFullException;
 import com.utility.tasklist.tasklist_wrapper.service.CamundaTaskService;
+import com.utility.tasklist.tasklist_wrapper.service.NdjsonReader;
+import com.utility.tasklist.tasklist_wrapper.service.PublicationOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * REST controller for exposing endpoints to interact with Camunda APIs.
  * Provides endpoints for message correlation, starting and cancelling process instances.
+ * Handlers return the service's {@link Mono} directly, so Spring MVC completes the
+ * response asynchronously and the servlet thread is released while Camunda is called.
  */
 @CrossOrigin(origins = "*")
 @RestController
 @RequestMapping({"/messages", ""})
 public class MessageController {
 
+    /** Upstream buffers queued ahead of the servlet output stream in pass-through responses */
+    private static final int PASS_THROUGH_PREFETCH = 4;
+
+    /** Retry-After of responses to calls rejected by a bulkhead */
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    /** Whether process definition responses carry ETag/Cache-Control headers */
+    @Value("${wrapper.cache.process-definitions.http-headers:true}")
+    private boolean definitionCacheHeaders;
+
+    /** Cache-Control max-age for process definition responses */
+    @Value("${wrapper.cache.process-definitions.http-max-age:1h}")
+    private Duration definitionCacheMaxAge;
+
     /** Service for interacting with Camunda APIs */
     private final CamundaTaskService camundaTaskService;
 
+    /** Parser for newline-delimited JSON request bodies */
+    private final NdjsonReader ndjsonReader;
+
+    /** Durable outbox for publications, when enabled */
+    private final PublicationOutbox publicationOutbox;
+
     /**
      * Constructor-based dependency injection for CamundaTaskService.
      *
      * @param camundaTaskService the service to interact with Camunda
+     * @param ndjsonReader parser for streamed request bodies
+     * @param publicationOutbox outbox that publications go through when it is enabled
      */
-    public MessageController(CamundaTaskService camundaTaskService) {
+    public MessageController(CamundaTaskService camundaTaskService, NdjsonReader ndjsonReader,
+                             PublicationOutbox publicationOutbox) {
         this.camundaTaskService = camundaTaskService;
+        this.ndjsonReader = ndjsonReader;
+        this.publicationOutbox = publicationOutbox;
     }
 
     /**
      * Correlate a message to a process instance.
-     * 
+     *
      * POST /messages/correlation
      */
     @PostMapping("/correlation")
-    public ResponseEntity<?> correlateMessage(@RequestBody CorrelateMessageRequest request) {
-        try {
-            Object result = camundaTaskService.correlateMessage(request);
-            return ResponseEntity.ok(result);
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body("Failed to correlate message: " + ex.getMessage());
-        }
+    public Mono<ResponseEntity<?>> correlateMessage(@RequestBody CorrelateMessageRequest request) {
+        return ok(camundaTaskService.correlateMessage(request), "Failed to correlate message: ");
+    }
+
+    /**
+     * Correlate a burst of messages; with wrapper.correlation.pipeline.enabled, items with the
+     * same correlationKey are correlated in request order. Returns one result per item, in
+     * request order; failed items do not fail the batch.
+     *
+     * POST /messages/correlation/batch
+     */
+    @PostMapping("/correlation/batch")
+    public Mono<ResponseEntity<?>> correlateMessages(@RequestBody List<CorrelateMessageRequest> requests) {
+        return ok(camundaTaskService.correlateMessages(requests).collectList(), "Failed to correlate messages: ");
     }
 
     /**
      * Publish a message to a process instance.
-     * 
+     * With the outbox enabled, answers 202 with the messageId once the message is stored
+     * locally; it is published in the background.
+     *
      * POST /messages/publication
      */
     @PostMapping("/publication")
-    public ResponseEntity<?> publicationMessage(@RequestBody publicationMessageRequest request) {
-        try {
-            Object result = camundaTaskService.publicationMessage(request);
-            return ResponseEntity.ok(result);
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body("Failed to publish message: " + ex.getMessage());
+    public Mono<ResponseEntity<?>> publicationMessage(@RequestBody publicationMessageRequest request) {
+        if (publicationOutbox.isEnabled()) {
+            return publicationOutbox.append(request)
+                    .<ResponseEntity<?>>map(accepted -> ResponseEntity.accepted().body(accepted))
+                    .onErrorResume(ex -> Mono.just(failed("Failed to accept message: ", ex)));
         }
+        return ok(camundaTaskService.publicationMessage(request), "Failed to publish message: ");
+    }
+
+    /**
+     * Publish a batch of messages with bounded concurrency.
+     * Returns one result per item, in request order; failed items do not fail the batch.
+     * With the outbox enabled, an item's result is its messageId once the message is stored.
+     *
+     * POST /messages/publication/batch
+     */
+    @PostMapping("/publication/batch")
+    public Mono<ResponseEntity<?>> publicationMessages(@RequestBody List<publicationMessageRequest> requests) {
+        return ok(camundaTaskService.publicationMessages(requests, publicationOutbox::publish).collectList(), "Failed to publish messages: ");
     }
 
     /**
@@ -67,13 +139,41 @@ public class MessageController {
      * Exposed at root-level: POST /process-instances
      */
     @PostMapping("/process-instances")
-    public ResponseEntity<?> startProcess(@RequestBody StartProcessInstanceRequest request) {
-        try {
-            Object result = camundaTaskService.startProcess(request);
-            return ResponseEntity.ok(result);
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body("Failed to start process: " + ex.getMessage());
-        }
+    public Mono<ResponseEntity<?>> startProcess(@RequestBody StartProcessInstanceRequest request) {
+        return ok(camundaTaskService.startProcess(request), "Failed to start process: ");
+    }
+
+    /**
+     * Start many process instances via the Zeebe gRPC client.
+     * Returns one result per item, in request order; failed items do not fail the batch.
+     * POST /process-instances/bulk
+     */
+    @PostMapping(path = "/process-instances/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> startProcessInstances(@RequestBody List<StartProcessInstanceRequest> requests) {
+        return ok(camundaTaskService.startProcessInstances(Flux.fromIterable(requests).map(Mono::just)).collectList(),
+                "Failed to start process instances: ");
+    }
+
+    /**
+     * Streamed variant for large jobs: one StartProcessInstanceRequest per line in, one result per line out.
+     * POST /process-instances/bulk (Content-Type: application/x-ndjson)
+     */
+    @PostMapping(path = "/process-instances/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchItemResult> startProcessInstancesStream(InputStream body) {
+        return camundaTaskService.startProcessInstances(ndjsonReader.read(body, StartProcessInstanceRequest.class));
+    }
+
+    /**
+     * Long-lived stream of operations, one IngestOperation per line in, one result per line out,
+     * in the same order. Lines are parsed as they arrive and results are written as soon as they
+     * (and all before them) are done.
+     * POST /ingest (Content-Type: application/x-ndjson)
+     */
+    @PostMapping(path = "/ingest",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchItemResult> ingest(InputStream body) {
+        return camundaTaskService.ingest(ndjsonReader.read(body, IngestOperation.class));
     }
 
     /**
@@ -81,31 +181,21 @@ public class MessageController {
      * Exposed at: POST /process-instances/{processInstanceKey}/cancellation
      */
     @PostMapping("/process-instances/{processInstanceKey}/cancellation")
-    public ResponseEntity<?> cancelProcess(@PathVariable String processInstanceKey) {
-        try {
-            camundaTaskService.cancelProcessInstance(processInstanceKey);
-            return ResponseEntity.ok("instance cancel successful");
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body("Failed to cancel process: " + ex.getMessage());
-        }
+    public Mono<ResponseEntity<?>> cancelProcess(@PathVariable String processInstanceKey) {
+        return ok(camundaTaskService.cancelProcessInstance(processInstanceKey)
+                .then(Mono.just("instance cancel successful")), "Failed to cancel process: ");
     }
 
-
-
     /**
      * Update all variables of an element instance (or process instance) scope.
      * PUT /v2/element-instances/{elementInstanceKey}/variables (proxy)
      */
     @PutMapping("/v2/element-instances/{elementInstanceKey}/variables")
-    public ResponseEntity<?> updateElementInstanceVariables(
+    public Mono<ResponseEntity<?>> updateElementInstanceVariables(
             @PathVariable String elementInstanceKey,
-            @RequestBody com.utility.tasklist.tasklist_wrapper.dto.UpdateElementInstanceVariablesRequest request) {
-        try {
-            camundaTaskService.updateElementInstanceVariables(elementInstanceKey, request);
-            return ResponseEntity.ok("Updated successfully"); // 204
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body("Failed to update variables: " + ex.getMessage());
-        }
+            @RequestBody UpdateElementInstanceVariablesRequest request) {
+        return ok(camundaTaskService.updateElementInstanceVariables(elementInstanceKey, request)
+                .then(Mono.just("Updated successfully")), "Failed to update variables: ");
     }
 
     /**
@@ -113,108 +203,188 @@ public class MessageController {
      * PUT /process-instances/{processInstanceKey}/variables
      */
     @PutMapping("/process-instances/{processInstanceKey}/variables")
-    public ResponseEntity<?> updateProcessInstanceVariables(
+    public Mono<ResponseEntity<?>> updateProcessInstanceVariables(
             @PathVariable long processInstanceKey,
             @RequestBody UpdateProcessInstanceVariablesRequest request) {
-        try {
-            camundaTaskService.updateProcessInstanceVariables(processInstanceKey, request);
-            return ResponseEntity.noContent().build(); // 204
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body("Failed to update process instance variables: " + ex.getMessage());
-        }
+        return camundaTaskService.updateProcessInstanceVariables(processInstanceKey, request)
+                .then(Mono.<ResponseEntity<?>>just(ResponseEntity.noContent().build())) // 204
+                .onErrorResume(ex -> Mono.just(failed("Failed to update process instance variables: ", ex)));
     }
 
     /**
-     * Search process instances.
-     * POST /v1/variable/search (proxy)
-     */
-   @PostMapping("/v1/variables/search")
-    public ResponseEntity<?> searchProcessInstancesVariable(@RequestBody String requestBody) {
-        try {
-            // requestBody ko service me pass kar rahe hain directly
-            Object result = camundaTaskService.searchProcessInstancesVariable(requestBody);
-            return ResponseEntity.ok(result);
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body("Failed to search process instances: " + ex.getMessage());
-        }
+     * Search process instance variables.
+     * POST /v1/variables/search (proxy)
+     */
+    @PostMapping("/v1/variables/search")
+    public Mono<ResponseEntity<StreamingResponseBody>> searchProcessInstancesVariable(@RequestBody String requestBody) {
+        return passThrough(camundaTaskService.searchProcessInstancesVariable(requestBody), "Failed to search process instances: ");
     }
-    
-
-
-
-
-
 
     /**
      * Search process instances.
-     * POST /v1/variable/search (proxy)
+     * POST /v1/process-instances/search (proxy)
      */
     @PostMapping("/v1/process-instances/search")
-public ResponseEntity<?> searchProcessInstances(@RequestBody String requestJson) {
-    try {
-        System.out.println("Received request from Postman: " + requestJson);
-        Object result = camundaTaskService.searchProcessInstances(requestJson);
-        return ResponseEntity.ok(result);
-    } catch (Exception ex) {
-        return ResponseEntity.status(500)
-                             .body("Failed to search process instances: " + ex.getMessage());
+    public Mono<ResponseEntity<StreamingResponseBody>> searchProcessInstances(@RequestBody String requestJson) {
+        return passThrough(camundaTaskService.searchProcessInstances(requestJson), "Failed to search process instances: ");
     }
-}
-
-
 
+    /**
+     * Stream every process instance matching the search as NDJSON, one instance per line.
+     * The wrapper follows searchAfter itself; the request's size is the page size used upstream.
+     * POST /v1/process-instances/search/stream
+     */
+    @PostMapping(path = "/v1/process-instances/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<JsonNode> streamProcessInstances(@RequestBody ProcessInstancesRequest request) {
+        return camundaTaskService.streamProcessInstances(request);
+    }
 
+    /**
+     * Stream every variable matching the search as NDJSON, one variable per line.
+     * POST /v1/variables/search/stream
+     */
+    @PostMapping(path = "/v1/variables/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<JsonNode> streamProcessInstancesVariables(@RequestBody SearchProcessInstancesRequest request) {
+        return camundaTaskService.streamProcessInstancesVariables(request);
+    }
 
     /**
      * Get process instance by key.
      * GET /v1/process-instances/{key} (proxy)
      */
     @GetMapping("/process-instances/{key}")
-    public ResponseEntity<?> getProcessInstanceByKey(@PathVariable long key) {
-        try {
-            Object result = camundaTaskService.getProcessInstanceByKey(key);
-            return ResponseEntity.ok(result);
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body("Failed to get process instance: " + ex.getMessage());
-        }
+    public Mono<ResponseEntity<?>> getProcessInstanceByKey(@PathVariable long key) {
+        return ok(camundaTaskService.getProcessInstanceByKey(key), "Failed to get process instance: ");
     }
 
-
-
-     /**
-    *  Get process definition by key
-     * GET /v1/process-definitions//{key} (proxy)
+    /**
+     * Get process definition by key
+     * GET /v1/process-definitions/{key} (proxy)
      */
     @GetMapping("/process-definitions/{key}")
-    public ResponseEntity<?> getProcessdefinitionByKey(@PathVariable long key) {
-        try {
-            Object result = camundaTaskService.getprocessDefinitionsBykey(key);
-            return ResponseEntity.ok(result);
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body("Failed to get process instance: " + ex.getMessage());
+    public Mono<ResponseEntity<?>> getProcessdefinitionByKey(
+            @PathVariable long key,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = "\"pd-" + key + "\"";
+        if (definitionCacheHeaders && eTag.equals(ifNoneMatch)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
         }
+        return ok(camundaTaskService.getprocessDefinitionsBykey(key), "Failed to get process instance: ")
+                .<ResponseEntity<?>>map(response -> cacheable(response, eTag));
     }
 
+    /**
+     * Get process definition BPMN XML by key
+     * GET /v1/process-definitions/{key}/xml (proxy)
+     */
     @GetMapping("/process-definitions/{key}/xml")
-    public ResponseEntity<String> getProcessdefinitionAsXML(@PathVariable long key) {
-    try {
-        String result = camundaTaskService.getProcessDefinitionAsXml(key); 
-        return ResponseEntity.ok(result);
-    } catch (Exception ex) {
-        return ResponseEntity.status(500).body("Failed to get process definition: " + ex.getMessage());
+    public Mono<ResponseEntity<StreamingResponseBody>> getProcessdefinitionAsXML(
+            @PathVariable long key,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = "\"pd-" + key + "-xml\"";
+        if (definitionCacheHeaders && eTag.equals(ifNoneMatch)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
+        }
+        return passThrough(camundaTaskService.getProcessDefinitionAsXml(key), "Failed to get process definition: ")
+                .map(response -> cacheable(response, eTag));
     }
-}
+
+    /**
+     * Evaluate a decision.
+     * POST /v2/decision-definitions/evaluation (proxy)
+     */
     @PostMapping("/v2/decision-definitions/evaluation")
-    public ResponseEntity<?> evaluateDecision(@RequestBody EvaluateDecisionRequest request) {
-        try {
-            Object result = camundaTaskService.evaluateDecision(request);
-            return ResponseEntity.ok(result);
-        } catch (Exception ex) {
-            return ResponseEntity.status(500).body("Failed to evaluate decision: " + ex.getMessage());
+    public Mono<ResponseEntity<?>> evaluateDecision(@RequestBody EvaluateDecisionRequest request) {
+        return ok(camundaTaskService.evaluateDecision(request), "Failed to evaluate decision: ");
+    }
+
+    /**
+     * Calls rejected by a bulkhead before the first element of a streamed response.
+     */
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<String> rejected(BulkheadFullException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Maps the service result to a 200 response, or to a 500 carrying the failure message
+     * (429/503 when a bulkhead rejected the call).
+     * An empty result (e.g. a 204 from Camunda) becomes a 200 without body, as before.
+     */
+    private Mono<ResponseEntity<?>> ok(Mono<?> result, String failureMessage) {
+        return result.<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.ok().build())
+                .onErrorResume(ex -> Mono.just(failed(failureMessage, ex)));
+    }
+
+    /**
+     * Adds ETag and Cache-Control to a successful response for an immutable resource.
+     * Process definitions never change under their key, so the key itself is the ETag.
+     */
+    private <T> ResponseEntity<T> cacheable(ResponseEntity<T> response, String eTag) {
+        if (!definitionCacheHeaders || !response.getStatusCode().is2xxSuccessful()) {
+            return response;
         }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(eTag)
+                .cacheControl(CacheControl.maxAge(definitionCacheMaxAge).cachePublic())
+                .body(response.getBody());
     }
 
+    private ResponseEntity<?> failed(String failureMessage, Throwable ex) {
+        return ResponseEntity.status(status(ex))
+                .headers(retryAfter(ex))
+                .body(failureMessage + ex.getMessage());
+    }
+
+    private static HttpStatus status(Throwable ex) {
+        return ex instanceof BulkheadFullException rejected ? rejected.getStatus() : HttpStatus.INTERNAL_SERVER_ERROR;
+    }
 
-    
+    private static HttpHeaders retryAfter(Throwable ex) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ex instanceof BulkheadFullException) {
+            headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        }
+        return headers;
+    }
 
-}
\ No newline at end of file
+    /**
+     * Forwards an upstream response (status, content type, body) without materializing the body:
+     * each upstream buffer is copied to the servlet output stream and released right away.
+     * The body is written from the MVC async executor, since the servlet stream blocks; that
+     * executor runs each response on its own virtual thread (see ExecutionConfig).
+     */
+    private Mono<ResponseEntity<StreamingResponseBody>> passThrough(Mono<ResponseEntity<Flux<DataBuffer>>> upstream,
+                                                                    String failureMessage) {
+        return upstream
+                .map(response -> {
+                    MediaType contentType = response.getHeaders().getContentType();
+                    return ResponseEntity.status(response.getStatusCode())
+                            .contentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM)
+                            .body(writeBuffers(response.getBody()));
+                })
+                .onErrorResume(ex -> Mono.just(ResponseEntity.status(status(ex))
+                        .headers(retryAfter(ex))
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .<StreamingResponseBody>body(out -> out.write((failureMessage + ex.getMessage()).getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    private StreamingResponseBody writeBuffers(Flux<DataBuffer> body) {
+        return out -> {
+            // closing the stream cancels the upstream if the client goes away mid-body
+            try (Stream<DataBuffer> buffers = body.toStream(PASS_THROUGH_PREFETCH)) {
+                Iterator<DataBuffer> iterator = buffers.iterator();
+                while (iterator.hasNext()) {
+                    try (InputStream in = iterator.next().asInputStream(true)) {
+                        in.transferTo(out);
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.utility.tasklist.tasklist_wrapper.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.grpc.MetricCollectingServerInterceptor;
+
+/**
+ * Serves {@link WrapperGrpcService} on {@code wrapper.grpc.port} when {@code wrapper.grpc.enabled}
+ * is set. Every call is recorded in the grpc.server.* meters. Port 0 binds a free port, see
+ * {@link #getPort()}.
+ */
+@Component
+public class WrapperGrpcServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(WrapperGrpcServer.class);
+
+    private final WrapperGrpcService service;
+    private final boolean enabled;
+    private final int port;
+    private final DataSize maxMessageSize;
+
+    private volatile Server server;
+
+    public WrapperGrpcServer(
+            WrapperGrpcService service,
+            @Value("${wrapper.grpc.enabled:false}") boolean enabled,
+            @Value("${wrapper.grpc.port:9090}") int port,
+            @Value("${wrapper.grpc.max-message-size:4MB}") DataSize maxMessageSize) {
+        this.service = service;
+        this.enabled = enabled;
+        this.port = port;
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            server = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+                    .addService(service)
+                    .intercept(new MetricCollectingServerInterceptor(Metrics.globalRegistry))
+                    .maxInboundMessageSize((int) maxMessageSize.toBytes())
+                    .build()
+                    .start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot start the gRPC server on port " + port, ex);
+        }
+        logger.info("gRPC server listening on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(10, TimeUnit.SECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /** The bound port, or -1 when the server is not running */
+    public int getPort() {
+        Server running = server;
+        return running == null ? -1 : running.getPort();
+    }
+}
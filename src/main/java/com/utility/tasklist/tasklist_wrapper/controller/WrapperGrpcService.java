@@ -0,0 +1,319 @@
+package com.utility.tasklist.tasklist_wrapper.controller;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.tasklist.tasklist_wrapper.dto.BatchItemResult;
+import com.utility.tasklist.tasklist_wrapper.dto.CorrelateMessageRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.EvaluateDecisionRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.ProcessInstancesRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.SearchProcessInstancesRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.StartProcessInstanceRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.UpdateElementInstanceVariablesRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.publicationMessageRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.BatchResult;
+import com.utility.tasklist.tasklist_wrapper.grpc.CancelRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.CorrelateRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.EvaluateRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.ItemResult;
+import com.utility.tasklist.tasklist_wrapper.grpc.OperationResult;
+import com.utility.tasklist.tasklist_wrapper.grpc.PublishRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.SearchItem;
+import com.utility.tasklist.tasklist_wrapper.grpc.SearchRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.SetVariablesRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.StartRequest;
+import com.utility.tasklist.tasklist_wrapper.grpc.WrapperGrpc;
+import com.utility.tasklist.tasklist_wrapper.service.BulkheadFullException;
+import com.utility.tasklist.tasklist_wrapper.service.CamundaTaskService;
+import com.utility.tasklist.tasklist_wrapper.service.PublicationOutbox;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import org.reactivestreams.Subscription;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+/**
+ * gRPC counterpart of {@link MessageController}: the same {@link CamundaTaskService} operations,
+ * so routing, bulkheads, deduplication and metrics apply to both. Failures map to gRPC status
+ * codes: bulkhead rejections to RESOURCE_EXHAUSTED (queue full) or UNAVAILABLE (wait timed out),
+ * malformed requests to INVALID_ARGUMENT, anything else to INTERNAL with the failure message.
+ * <p>
+ * Streams follow gRPC flow control: search results are only produced while the client keeps
+ * up, and batch requests are only read as earlier items complete.
+ */
+@Component
+public class WrapperGrpcService extends WrapperGrpc.WrapperImplBase {
+
+    private static final TypeReference<Map<String, Object>> VARIABLES = new TypeReference<>() {};
+
+    private final CamundaTaskService camundaTaskService;
+    private final PublicationOutbox publicationOutbox;
+    private final ObjectMapper objectMapper;
+
+    /** Items in flight per client-streaming batch call */
+    @Value("${wrapper.grpc.batch-concurrency:256}")
+    private int batchConcurrency;
+
+    public WrapperGrpcService(CamundaTaskService camundaTaskService, PublicationOutbox publicationOutbox,
+                              ObjectMapper objectMapper) {
+        this.camundaTaskService = camundaTaskService;
+        this.publicationOutbox = publicationOutbox;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publishMessage(PublishRequest request, StreamObserver<OperationResult> observer) {
+        // like POST /messages/publication: with the outbox enabled the result is {messageId, sequence}
+        unary(Mono.fromCallable(() -> publication(request)).flatMap(publicationOutbox::publish), observer);
+    }
+
+    @Override
+    public void correlateMessage(CorrelateRequest request, StreamObserver<OperationResult> observer) {
+        unary(camundaTaskService.correlateMessage(correlation(request)), observer);
+    }
+
+    @Override
+    public void startProcess(StartRequest request, StreamObserver<OperationResult> observer) {
+        unary(Mono.fromCallable(() -> start(request)).flatMap(camundaTaskService::startProcess), observer);
+    }
+
+    @Override
+    public void cancelProcessInstance(CancelRequest request, StreamObserver<OperationResult> observer) {
+        unary(camundaTaskService.cancelProcessInstance(request.getProcessInstanceKey()), observer);
+    }
+
+    @Override
+    public void setVariables(SetVariablesRequest request, StreamObserver<OperationResult> observer) {
+        unary(Mono.fromCallable(() -> {
+            UpdateElementInstanceVariablesRequest update = new UpdateElementInstanceVariablesRequest();
+            update.setVariables(variables(request.getVariablesJson()));
+            update.setLocal(request.getLocal());
+            if (request.hasOperationReference()) {
+                update.setOperationReference(request.getOperationReference());
+            }
+            return update;
+        }).flatMap(update -> camundaTaskService.updateElementInstanceVariables(request.getElementInstanceKey(), update)), observer);
+    }
+
+    @Override
+    public void evaluateDecision(EvaluateRequest request, StreamObserver<OperationResult> observer) {
+        unary(Mono.fromCallable(() -> new EvaluateDecisionRequest(
+                        emptyToNull(request.getDecisionDefinitionId()),
+                        emptyToNull(request.getDecisionDefinitionKey()),
+                        emptyToNull(request.getTenantId()),
+                        variables(request.getVariablesJson())))
+                .flatMap(camundaTaskService::evaluateDecision), observer);
+    }
+
+    @Override
+    public void searchProcessInstances(SearchRequest request, StreamObserver<SearchItem> observer) {
+        stream(Mono.fromCallable(() -> objectMapper.readValue(request.getRequestJson(), ProcessInstancesRequest.class))
+                .flatMapMany(camundaTaskService::streamProcessInstances), observer);
+    }
+
+    @Override
+    public void searchVariables(SearchRequest request, StreamObserver<SearchItem> observer) {
+        stream(Mono.fromCallable(() -> objectMapper.readValue(request.getRequestJson(), SearchProcessInstancesRequest.class))
+                .flatMapMany(camundaTaskService::streamProcessInstancesVariables), observer);
+    }
+
+    @Override
+    public StreamObserver<PublishRequest> publishMessages(StreamObserver<BatchResult> observer) {
+        return batch(observer, requests -> each(requests,
+                request -> Mono.fromCallable(() -> publication(request)).flatMap(publicationOutbox::publish)));
+    }
+
+    @Override
+    public StreamObserver<CorrelateRequest> correlateMessages(StreamObserver<BatchResult> observer) {
+        return batch(observer, requests -> each(requests, request -> camundaTaskService.correlateMessage(correlation(request))));
+    }
+
+    @Override
+    public StreamObserver<StartRequest> startProcesses(StreamObserver<BatchResult> observer) {
+        // the same bulk path as POST /process-instances/bulk; a bad item fails only its own result
+        return batch(observer, requests -> camundaTaskService.startProcessInstances(
+                requests.map(request -> Mono.fromCallable(() -> start(request)))));
+    }
+
+    private publicationMessageRequest publication(PublishRequest request) throws JsonProcessingException {
+        return new publicationMessageRequest(
+                request.getName(),
+                request.getCorrelationKey(),
+                request.hasTimeToLive() ? request.getTimeToLive() : null,
+                emptyToNull(request.getMessageId()),
+                variables(request.getVariablesJson()),
+                emptyToNull(request.getTenantId()));
+    }
+
+    private CorrelateMessageRequest correlation(CorrelateRequest request) {
+        return new CorrelateMessageRequest(request.getName(), request.getCorrelationKey(), emptyToNull(request.getMessageId()));
+    }
+
+    private StartProcessInstanceRequest start(StartRequest request) {
+        try {
+            return new StartProcessInstanceRequest(request.getProcessDefinitionId(), variables(request.getVariablesJson()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Invalid variables_json: " + ex.getOriginalMessage(), ex);
+        }
+    }
+
+    private Map<String, Object> variables(String json) throws JsonProcessingException {
+        return json.isEmpty() ? null : objectMapper.readValue(json, VARIABLES);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private void unary(Mono<?> result, StreamObserver<OperationResult> observer) {
+        ServerCallStreamObserver<OperationResult> call = (ServerCallStreamObserver<OperationResult>) observer;
+        Disposable subscription = result
+                .map(body -> OperationResult.newBuilder().setResultJson(json(body)).build())
+                .defaultIfEmpty(OperationResult.getDefaultInstance())
+                .subscribe(response -> {
+                    call.onNext(response);
+                    call.onCompleted();
+                }, ex -> call.onError(status(ex)));
+        call.setOnCancelHandler(subscription::dispose);
+    }
+
+    /**
+     * Sends the items one by one, requesting the next only while the call is ready, so a slow
+     * client slows down the search instead of items piling up in the server's buffers.
+     */
+    private void stream(Flux<JsonNode> items, StreamObserver<SearchItem> observer) {
+        ServerCallStreamObserver<SearchItem> call = (ServerCallStreamObserver<SearchItem>) observer;
+        AtomicBoolean waiting = new AtomicBoolean();
+        BaseSubscriber<JsonNode> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(JsonNode item) {
+                call.onNext(SearchItem.newBuilder().setJson(item.toString()).build());
+                waiting.set(true);
+                if (call.isReady() && waiting.compareAndSet(true, false)) {
+                    request(1);
+                }
+            }
+
+            @Override
+            protected void hookOnComplete() {
+                call.onCompleted();
+            }
+
+            @Override
+            protected void hookOnError(Throwable ex) {
+                call.onError(status(ex));
+            }
+        };
+        call.setOnReadyHandler(() -> {
+            if (waiting.compareAndSet(true, false)) {
+                subscriber.request(1);
+            }
+        });
+        call.setOnCancelHandler(subscriber::dispose);
+        items.subscribe(subscriber);
+    }
+
+    /**
+     * Bridges a client-streaming call to a Flux: messages are requested from the client as the
+     * handler requests items, and the collected results are sent when the stream is complete.
+     */
+    private <T> StreamObserver<T> batch(StreamObserver<BatchResult> observer,
+                                        Function<Flux<T>, Flux<BatchItemResult>> handler) {
+        ServerCallStreamObserver<BatchResult> call = (ServerCallStreamObserver<BatchResult>) observer;
+        call.disableAutoRequest();
+        AtomicReference<FluxSink<T>> requests = new AtomicReference<>();
+        Disposable subscription = handler.apply(Flux.<T>create(sink -> {
+                    requests.set(sink);
+                    sink.onRequest(n -> call.request((int) Math.min(n, Integer.MAX_VALUE)));
+                }))
+                .map(this::itemResult)
+                .collectList()
+                .subscribe(items -> {
+                    call.onNext(BatchResult.newBuilder().addAllItems(items).build());
+                    call.onCompleted();
+                }, ex -> call.onError(status(ex)));
+        call.setOnCancelHandler(subscription::dispose);
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T request) {
+                requests.get().next(request);
+            }
+
+            @Override
+            public void onError(Throwable ex) {
+                requests.get().error(ex);
+            }
+
+            @Override
+            public void onCompleted() {
+                requests.get().complete();
+            }
+        };
+    }
+
+    /** Runs an operation per item with bounded concurrency; results keep the stream order */
+    private <T> Flux<BatchItemResult> each(Flux<T> requests, Function<T, Mono<Object>> operation) {
+        return requests
+                .index()
+                .flatMapSequential(item -> Mono.defer(() -> operation.apply(item.getT2()))
+                        .map(body -> BatchItemResult.ok(item.getT1(), body))
+                        .defaultIfEmpty(BatchItemResult.ok(item.getT1(), null))
+                        .onErrorResume(ex -> Mono.just(BatchItemResult.failed(item.getT1(), ex))),
+                        batchConcurrency);
+    }
+
+    private ItemResult itemResult(BatchItemResult result) {
+        ItemResult.Builder item = ItemResult.newBuilder()
+                .setIndex(result.getIndex())
+                .setOk(BatchItemResult.OK.equals(result.getStatus()));
+        if (result.getResult() != null) {
+            item.setResultJson(json(result.getResult()));
+        }
+        if (result.getError() != null) {
+            item.setError(result.getError());
+        }
+        return item.build();
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize the Camunda response", ex);
+        }
+    }
+
+    private static StatusRuntimeException status(Throwable ex) {
+        if (ex instanceof BulkheadFullException rejected) {
+            Status status = rejected.getReason() == BulkheadFullException.Reason.QUEUE_FULL
+                    ? Status.RESOURCE_EXHAUSTED : Status.UNAVAILABLE;
+            return status.withDescription(ex.getMessage()).asRuntimeException();
+        }
+        if (ex instanceof IllegalArgumentException || ex instanceof JsonProcessingException) {
+            return Status.INVALID_ARGUMENT.withDescription(ex.getMessage()).asRuntimeException();
+        }
+        return Status.INTERNAL.withDescription(ex.getMessage()).asRuntimeException();
+    }
+}
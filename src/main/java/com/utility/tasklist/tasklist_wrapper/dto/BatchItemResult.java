@@ -0,0 +1,33 @@
+package com.utility.tasklist.tasklist_wrapper.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch request; results are returned in request order.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    public static final String OK = "OK";
+    public static final String FAILED = "FAILED";
+
+    private long index;     // position of the item in the request
+    private String status;  // OK or FAILED
+    private Object result;  // Camunda response for successful items
+    private String error;   // failure message for failed items
+
+    public static BatchItemResult ok(long index, Object result) {
+        return new BatchItemResult(index, OK, result, null);
+    }
+
+    public static BatchItemResult failed(long index, Throwable ex) {
+        return new BatchItemResult(index, FAILED, null, ex.getMessage());
+    }
+}
@@ -1,6 +1,7 @@
 package com.utility.tasklist.tasklist_wrapper.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,5 +22,7 @@ public class CorrelateMessageRequest {
     @JsonProperty("correlationKey")
     private String correlationKey;
 
-   
+    // optional idempotency key; only used by the wrapper, Camunda's correlation API has none
+    @JsonProperty(value = "messageId", access = Access.WRITE_ONLY)
+    private String messageId;
 }
@@ -0,0 +1,21 @@
+package com.utility.tasklist.tasklist_wrapper.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the NDJSON ingest stream, e.g.
+ * {"op":"publish","body":{"name":"order-paid","correlationKey":"ORD123"}} or
+ * {"op":"cancel","key":"2251799813685253"}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IngestOperation {
+    private String op;     // publish, correlate, start, setVariables or cancel
+    private String key;    // element/process instance key for setVariables and cancel
+    private JsonNode body; // the request body of the matching endpoint
+}
@@ -1,5 +1,6 @@
 package com.utility.tasklist.tasklist_wrapper.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import javax.print.DocFlavor.STRING;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ProcessInstancesRequest {
 
     private Filter filter;
@@ -20,6 +22,7 @@ public class ProcessInstancesRequest {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class Filter {
         private Long key;
         private Integer processVersion;
@@ -49,6 +52,7 @@ public class ProcessInstancesRequest {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class Sort {
         private String field; // e.g., "startDate"
         private String order; // ASC or DESC
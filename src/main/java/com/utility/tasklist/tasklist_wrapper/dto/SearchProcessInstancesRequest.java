@@ -1,5 +1,6 @@
 package com.utility.tasklist.tasklist_wrapper.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class SearchProcessInstancesRequest {
     private Filter filter;
     private Integer size;
@@ -18,6 +20,7 @@ public class SearchProcessInstancesRequest {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class Filter {
         private String name;
         private String value; 
@@ -29,6 +32,7 @@ public class SearchProcessInstancesRequest {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class SortOption {
         private String field;
         private String order;
@@ -0,0 +1,50 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A call rejected by a {@link Bulkheads bulkhead} before it was sent upstream.
+ * The status tells callers whether to back off (429, the queue was full) or that the upstream
+ * is too slow to take the call in time (503, the wait timed out). A call arriving while the
+ * wrapper shuts down is rejected with 503 as well, so that it is retried elsewhere.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public enum Reason {
+        QUEUE_FULL(HttpStatus.TOO_MANY_REQUESTS),
+        QUEUE_TIMEOUT(HttpStatus.SERVICE_UNAVAILABLE),
+        CLOSED(HttpStatus.SERVICE_UNAVAILABLE);
+
+        private final HttpStatus status;
+
+        Reason(HttpStatus status) {
+            this.status = status;
+        }
+
+        public String tag() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private final String operation;
+    private final Reason reason;
+
+    public BulkheadFullException(String operation, Reason reason, String message) {
+        // rejections are expected under load; a stack trace would only add cost
+        super(message, null, false, false);
+        this.operation = operation;
+        this.reason = reason;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public HttpStatus getStatus() {
+        return reason.status;
+    }
+}
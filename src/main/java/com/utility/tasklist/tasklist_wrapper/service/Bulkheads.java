@@ -0,0 +1,194 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.utility.tasklist.tasklist_wrapper.config.BulkheadProperties;
+import com.utility.tasklist.tasklist_wrapper.service.BulkheadFullException.Reason;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * One bulkhead per upstream operation, so a slow upstream (typically Operate searches) can only
+ * tie up its own share of calls and never starves the message path.
+ * A call holds its slot from subscription until it terminates or is cancelled; for a Flux that
+ * is the whole stream, for the pass-through searches until the response head has arrived.
+ * Waiting calls are served in arrival order and do not block a thread.
+ * <p>
+ * Gauges {@code wrapper.bulkhead.active}, {@code wrapper.bulkhead.queued} and the configured
+ * limits, plus the counter {@code wrapper.bulkhead.rejections} (tags: operation, reason).
+ */
+@Component
+public class Bulkheads {
+
+    private final BulkheadProperties properties;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public Bulkheads(BulkheadProperties properties) {
+        this.properties = properties;
+    }
+
+    public <T> Mono<T> limit(String operation, Mono<T> call) {
+        if (!properties.isEnabled()) {
+            return call;
+        }
+        Bulkhead bulkhead = bulkhead(operation);
+        return Mono.usingWhen(bulkhead.acquire(), permit -> call,
+                permit -> bulkhead.release, (permit, ex) -> bulkhead.release, permit -> bulkhead.release);
+    }
+
+    public <T> Flux<T> limit(String operation, Flux<T> call) {
+        if (!properties.isEnabled()) {
+            return call;
+        }
+        Bulkhead bulkhead = bulkhead(operation);
+        return Flux.usingWhen(bulkhead.acquire(), permit -> call,
+                permit -> bulkhead.release, (permit, ex) -> bulkhead.release, permit -> bulkhead.release);
+    }
+
+    private Bulkhead bulkhead(String operation) {
+        return bulkheads.computeIfAbsent(operation, name -> new Bulkhead(name, properties.limits(name)));
+    }
+
+    private static final class Bulkhead {
+
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int ABANDONED = 2;
+
+        private final String operation;
+        private final int maxConcurrent;
+        private final int queueDepth;
+        private final Duration queueTimeout;
+
+        /** Guarded by this */
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+        /** Guarded by this */
+        private int active;
+
+        private final Counter queueFull;
+        private final Counter queueTimedOut;
+
+        final Mono<Void> release = Mono.fromRunnable(this::releasePermit);
+
+        private record Waiter(MonoSink<Boolean> sink, AtomicInteger state) {
+        }
+
+        Bulkhead(String operation, BulkheadProperties.Limits limits) {
+            this.operation = operation;
+            this.maxConcurrent = limits.getMaxConcurrent();
+            this.queueDepth = limits.getQueueDepth();
+            this.queueTimeout = limits.getQueueTimeout();
+            this.queueFull = rejections(Reason.QUEUE_FULL);
+            this.queueTimedOut = rejections(Reason.QUEUE_TIMEOUT);
+            Gauge.builder("wrapper.bulkhead.active", this, Bulkhead::active)
+                    .description("Calls holding a slot of the bulkhead")
+                    .tag("operation", operation)
+                    .register(Metrics.globalRegistry);
+            Gauge.builder("wrapper.bulkhead.queued", this, Bulkhead::queued)
+                    .description("Calls waiting for a slot of the bulkhead")
+                    .tag("operation", operation)
+                    .register(Metrics.globalRegistry);
+            Gauge.builder("wrapper.bulkhead.max.concurrent", () -> maxConcurrent)
+                    .tag("operation", operation)
+                    .register(Metrics.globalRegistry);
+            Gauge.builder("wrapper.bulkhead.queue.depth", () -> queueDepth)
+                    .tag("operation", operation)
+                    .register(Metrics.globalRegistry);
+        }
+
+        private Counter rejections(Reason reason) {
+            return Counter.builder("wrapper.bulkhead.rejections")
+                    .description("Calls rejected by the bulkhead before being sent upstream")
+                    .tag("operation", operation)
+                    .tag("reason", reason.tag())
+                    .register(Metrics.globalRegistry);
+        }
+
+        /** Emits once a slot is held, or fails with a {@link BulkheadFullException} */
+        Mono<Boolean> acquire() {
+            return Mono.defer(() -> {
+                synchronized (this) {
+                    if (active < maxConcurrent) {
+                        active++;
+                        return Mono.just(Boolean.TRUE);
+                    }
+                    if (waiters.size() >= queueDepth) {
+                        queueFull.increment();
+                        return Mono.error(new BulkheadFullException(operation, Reason.QUEUE_FULL,
+                                "Too many concurrent " + operation + " calls (" + active + " active, "
+                                        + waiters.size() + " queued)"));
+                    }
+                }
+                return Mono.<Boolean>create(this::enqueue)
+                        .timeout(queueTimeout, Mono.defer(() -> {
+                            queueTimedOut.increment();
+                            return Mono.error(new BulkheadFullException(operation, Reason.QUEUE_TIMEOUT,
+                                    "No " + operation + " slot free within " + queueTimeout));
+                        }));
+            });
+        }
+
+        private void enqueue(MonoSink<Boolean> sink) {
+            Waiter waiter = new Waiter(sink, new AtomicInteger(WAITING));
+            // a timeout or a client going away cancels the wait
+            sink.onCancel(() -> abandon(waiter));
+            synchronized (this) {
+                // a slot may have been released since acquire() looked
+                if (active < maxConcurrent) {
+                    active++;
+                    waiter.state().set(GRANTED);
+                } else {
+                    waiters.addLast(waiter);
+                    return;
+                }
+            }
+            sink.success(Boolean.TRUE);
+        }
+
+        private void abandon(Waiter waiter) {
+            if (waiter.state().compareAndSet(WAITING, ABANDONED)) {
+                synchronized (this) {
+                    waiters.remove(waiter);
+                }
+            } else if (waiter.state().get() == GRANTED) {
+                // the slot was handed over but the cancellation won, so the waiter never got it
+                releasePermit();
+            }
+        }
+
+        /** Hands the slot to the longest waiting call, or frees it */
+        private void releasePermit() {
+            Waiter next;
+            synchronized (this) {
+                do {
+                    next = waiters.pollFirst();
+                } while (next != null && !next.state().compareAndSet(WAITING, GRANTED));
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            next.sink().success(Boolean.TRUE);
+        }
+
+        private synchronized int active() {
+            return active;
+        }
+
+        private synchronized int queued() {
+            return waiters.size();
+        }
+    }
+}
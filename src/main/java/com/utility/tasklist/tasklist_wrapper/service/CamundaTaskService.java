@@ -1,400 +1,534 @@
 package com.utility.tasklist.tasklist_wrapper.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.utility.tasklist.tasklist_wrapper.config.UrlConfig;
+import com.utility.tasklist.tasklist_wrapper.dto.BatchItemResult;
 import com.utility.tasklist.tasklist_wrapper.dto.CorrelateMessageRequest;
 import com.utility.tasklist.tasklist_wrapper.dto.EvaluateDecisionRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.IngestOperation;
 import com.utility.tasklist.tasklist_wrapper.dto.ProcessInstancesRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.SearchProcessInstancesRequest;
 import com.utility.tasklist.tasklist_wrapper.dto.StartProcessInstanceRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.UpdateElementInstanceVariablesRequest;
 import com.utility.tasklist.tasklist_wrapper.dto.UpdateProcessInstanceVariablesRequest;
 import com.utility.tasklist.tasklist_wrapper.dto.publicationMessageRequest;
-import com.utility.tasklist.tasklist_wrapper.dto.SearchProcessInstancesRequest;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.annotation.JsonInclude;
-
-
-import io.camunda.zeebe.client.ZeebeClient;
+import com.utility.tasklist.tasklist_wrapper.service.CamundaTransport.Operation;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Service for calling the Camunda REST APIs and the Zeebe gateway.
+ * Broker commands (publish, correlate, start, cancel, set variables) go through the
+ * {@link TransportRouter}, which picks REST or gRPC per operation.
+ * Every operation returns a {@link Mono} so that callers are never blocked while
+ * the upstream call is in flight; nothing in this class calls {@code block()}.
+ * Upstream calls are limited per operation by {@link Bulkheads}; cache hits bypass the limits.
+ */
 @Service
 public class CamundaTaskService {
 
     private static final Logger logger = LoggerFactory.getLogger(CamundaTaskService.class);
 
-    private final WebClient webClient;
-    private final ZeebeClient zeebeClient;
-
-    public CamundaTaskService(WebClient webClient, ZeebeClient zeebeClient) {
-        this.webClient = webClient;
-        this.zeebeClient = zeebeClient;
+    /** Client for the orchestration REST API (:8088) */
+    private final WebClient orchestrationClient;
+    /** Client for Operate (:8081) */
+    private final WebClient operateClient;
+    private final TransportRouter transportRouter;
+    private final RestCamundaTransport restTransport;
+    private final GrpcCamundaTransport grpcTransport;
+    private final ProcessDefinitionCache processDefinitionCache;
+    private final ProcessInstanceCache processInstanceCache;
+    private final DecisionResultCache decisionResultCache;
+    private final LocalDecisionEngine localDecisionEngine;
+    private final VariableUpdateCoalescer variableUpdateCoalescer;
+    private final OperationMetrics operationMetrics;
+    private final Bulkheads bulkheads;
+    private final MessageDeduplicator messageDeduplicator;
+    private final CorrelationPipeline correlationPipeline;
+
+    public CamundaTaskService(@Qualifier("orchestrationWebClient") WebClient orchestrationClient,
+                              @Qualifier("operateWebClient") WebClient operateClient,
+                              TransportRouter transportRouter,
+                              RestCamundaTransport restTransport,
+                              GrpcCamundaTransport grpcTransport,
+                              ProcessDefinitionCache processDefinitionCache,
+                              ProcessInstanceCache processInstanceCache,
+                              DecisionResultCache decisionResultCache,
+                              LocalDecisionEngine localDecisionEngine,
+                              VariableUpdateCoalescer variableUpdateCoalescer,
+                              OperationMetrics operationMetrics,
+                              Bulkheads bulkheads,
+                              MessageDeduplicator messageDeduplicator,
+                              CorrelationPipeline correlationPipeline) {
+        this.orchestrationClient = orchestrationClient;
+        this.operateClient = operateClient;
+        this.transportRouter = transportRouter;
+        this.restTransport = restTransport;
+        this.grpcTransport = grpcTransport;
+        this.processDefinitionCache = processDefinitionCache;
+        this.processInstanceCache = processInstanceCache;
+        this.decisionResultCache = decisionResultCache;
+        this.localDecisionEngine = localDecisionEngine;
+        this.variableUpdateCoalescer = variableUpdateCoalescer;
+        this.operationMetrics = operationMetrics;
+        this.bulkheads = bulkheads;
+        this.messageDeduplicator = messageDeduplicator;
+        this.correlationPipeline = correlationPipeline;
     }
-    
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    /** Maximum publications in flight for one batch request */
+    @Value("${wrapper.batch.publication.concurrency:64}")
+    private int batchPublicationConcurrency;
+
+    /** Maximum correlations in flight for one batch request */
+    @Value("${wrapper.batch.correlation.concurrency:64}")
+    private int batchCorrelationConcurrency;
+
+    /** Maximum process instance creations in flight for one bulk start */
+    @Value("${wrapper.bulk.start.window:256}")
+    private int bulkStartWindow;
+
+    /** Maximum operations in flight for one ingest stream */
+    @Value("${wrapper.ingest.concurrency:256}")
+    private int ingestConcurrency;
+
     /**
      * Correlate a message to a process instance using Camunda's message API.
+     * Retries with the same messageId get the result of the first correlation. With the
+     * {@link CorrelationPipeline} enabled, correlations of one correlationKey are sent in arrival order.
      *
-     * @param request the correlation parameters (name, correlationKey)
+     * @param request the correlation parameters (name, correlationKey, optional messageId)
      * @return the response from Camunda
      */
-    public Object correlateMessage(CorrelateMessageRequest request) {
-        try {
-            logger.info("Correlating message via Camunda API at {}", UrlConfig.ZEEBEE_MESSAGE_API_BASE_URL);
-            ResponseEntity<Object> response = webClient.post()
-                    .uri(UrlConfig.ZEEBEE_MESSAGE_API_BASE_URL)
-                    .bodyValue(request)
-                    .retrieve()
-                    .toEntity(Object.class)
-                    .block();
-
-            if (response != null && response.getStatusCode().is2xxSuccessful()) {
-                logger.debug("Successfully correlated message: {}", request.getName());
-                return response.getBody();
-            } else {
-                String status = (response == null) ? "null response" : response.getStatusCode().toString();
-                Object body = (response == null) ? null : response.getBody();
-                logger.error("Failed to correlate message: HTTP {} - {}", status, body);
-                throw new RuntimeException("Failed to correlate message in Camunda.");
-            }
-        } catch (Exception ex) {
-            logger.error("Exception while correlating message: {}", ex.getMessage(), ex);
-            throw new RuntimeException("Error correlating message in Camunda", ex);
-        }
+    public Mono<Object> correlateMessage(CorrelateMessageRequest request) {
+        return messageDeduplicator.deduplicate("correlate", request.getName(), null, request.getMessageId(), () ->
+                        correlationPipeline.submit(request.getCorrelationKey(), () -> sendCorrelation(request))
+                                .doOnSuccess(body -> logger.debug("Successfully correlated message: {}", request.getName()))
+                                .onErrorMap(ex -> failure("Error correlating message in Camunda", ex)))
+                .transform(call -> operationMetrics.timed("correlate", call));
     }
 
-    public Object publicationMessage(publicationMessageRequest request) {
-        try {
-            logger.info("Publishing message via Camunda API at {}", UrlConfig.ZEEBEE_MESSAGE_PUBLISH_BASE_URL);
-            // Default TTL to 0 if not provided to satisfy Camunda API's non-null expectation
-            if (request.getTimeToLive() == null) {
-                request.setTimeToLive(0L);
-            }
-            ResponseEntity<Object> response = webClient.post()
-                    .uri(UrlConfig.ZEEBEE_MESSAGE_PUBLISH_BASE_URL)
-                    .bodyValue(request)
-                    .retrieve()
-                    .toEntity(Object.class)
-                    .block();
-
-            if (response != null && response.getStatusCode().is2xxSuccessful()) {
-                logger.debug("Successfully published message: {}", request.getName());
-                return response.getBody();
-            } else {
-                String status = (response == null) ? "null response" : response.getStatusCode().toString();
-                Object body = (response == null) ? null : response.getBody();
-                logger.error("Failed to publish message: HTTP {} - {}", status, body);
-                throw new RuntimeException("Failed to publish message in Camunda.");
-            }
-        } catch (WebClientResponseException wex) {
-            String body = wex.getResponseBodyAsString();
-            logger.error("Camunda publish message API error: status={}, body={}", wex.getRawStatusCode(), body);
-            throw new RuntimeException("Camunda error (" + wex.getRawStatusCode() + "): " + body, wex);
-        } catch (Exception ex) {
-            logger.error("Exception while publishing message: {}", ex.getMessage(), ex);
-            throw new RuntimeException("Error publishing message in Camunda", ex);
+    private Mono<Object> sendCorrelation(CorrelateMessageRequest request) {
+        // correlation has no gRPC command, so it is not routed
+        return restTransport.correlateMessage(request)
+                .transform(call -> bulkheads.limit("correlate", call));
+    }
+
+    /**
+     * Correlate a burst of messages with bounded concurrency. Items are submitted in request
+     * order, so with the correlation pipeline enabled items with the same correlationKey are
+     * correlated in that order.
+     *
+     * @return one result per request item, in request order
+     */
+    public Flux<BatchItemResult> correlateMessages(List<CorrelateMessageRequest> requests) {
+        logger.debug("Correlating batch of {} messages (concurrency {})", requests.size(), batchCorrelationConcurrency);
+        return Flux.fromIterable(requests)
+                .index()
+                .flatMapSequential(item -> correlateMessage(item.getT2())
+                        .map(body -> BatchItemResult.ok(item.getT1(), body))
+                        .defaultIfEmpty(BatchItemResult.ok(item.getT1(), null))
+                        .onErrorResume(ex -> Mono.just(BatchItemResult.failed(item.getT1(), ex))),
+                        batchCorrelationConcurrency);
+    }
+
+    /**
+     * Publish a message using Camunda's message API or the gateway, as routed.
+     * Retries with the same messageId get the result of the first publication.
+     * POST http://localhost:8088/v2/messages/publication
+     */
+    public Mono<Object> publicationMessage(publicationMessageRequest request) {
+        // Default TTL to 0 if not provided to satisfy Camunda API's non-null expectation
+        if (request.getTimeToLive() == null) {
+            request.setTimeToLive(0L);
         }
+        return messageDeduplicator.deduplicate("publish", request.getName(), request.getTenantId(), request.getMessageId(), () ->
+                        transportRouter.route(Operation.PUBLISH, transport -> transport.publishMessage(request))
+                                .transform(call -> bulkheads.limit("publish", call))
+                                .doOnSuccess(body -> logger.debug("Successfully published message: {}", request.getName()))
+                                .onErrorMap(ex -> failure("Error publishing message in Camunda", ex)))
+                .transform(call -> operationMetrics.timed("publish", call));
+    }
+
+    /**
+     * Publish a batch of messages, fanning out to the gateway with bounded concurrency.
+     * Items are published independently; a failure is reported on its item only.
+     *
+     * @param publish publishes one item, e.g. {@link PublicationOutbox#publish}
+     * @return one result per request item, in request order
+     */
+    public Flux<BatchItemResult> publicationMessages(List<publicationMessageRequest> requests,
+                                                     Function<publicationMessageRequest, Mono<Object>> publish) {
+        logger.debug("Publishing batch of {} messages (concurrency {})", requests.size(), batchPublicationConcurrency);
+        return Flux.fromIterable(requests)
+                .index()
+                .flatMapSequential(item -> publish.apply(item.getT2())
+                        .map(body -> BatchItemResult.ok(item.getT1(), body))
+                        .defaultIfEmpty(BatchItemResult.ok(item.getT1(), null))
+                        .onErrorResume(ex -> Mono.just(BatchItemResult.failed(item.getT1(), ex))),
+                        batchPublicationConcurrency);
     }
 
     /**
-     * Update process instance variables using Zeebe client (self-managed gateway).
+     * Update process instance variables.
      * If local=true, variables are set on the element scope; otherwise process instance scope.
      */
-    public void updateProcessInstanceVariables(long processInstanceKey, UpdateProcessInstanceVariablesRequest request) {
-        try {
-            logger.info("Setting variables via Zeebe client for processInstanceKey={} local={}", processInstanceKey, request.getLocal());
-            zeebeClient
-                .newSetVariablesCommand(processInstanceKey)
-                .variables(request.getVariables())
-                .local(Boolean.TRUE.equals(request.getLocal()))
-                .send()
-                .join();
-        } catch (Exception ex) {
-            logger.error("Exception while setting process instance variables: {}", ex.getMessage(), ex);
-            throw new RuntimeException("Error setting process instance variables via Zeebe client", ex);
-        }
+    public Mono<Void> updateProcessInstanceVariables(long processInstanceKey, UpdateProcessInstanceVariablesRequest request) {
+        boolean local = Boolean.TRUE.equals(request.getLocal());
+        String scopeKey = String.valueOf(processInstanceKey);
+        return variableUpdateCoalescer.submit(scopeKey, local, request.getVariables(),
+                        variables -> setVariables(scopeKey, variables, local))
+                .doFinally(signal -> processInstanceCache.invalidate(processInstanceKey))
+                .onErrorMap(ex -> failure("Error setting process instance variables", ex))
+                .transform(call -> operationMetrics.timed("setVariables", call));
+    }
+
+    /**
+     * Sends a set-variables command for the given scope over the routed transport.
+     */
+    private Mono<Void> setVariables(String scopeKey, Map<String, Object> variables, boolean local) {
+        return transportRouter.route(Operation.SET_VARIABLES, transport -> transport.setVariables(scopeKey, variables, local))
+                .transform(call -> bulkheads.limit("set-variables", call));
     }
 
     /**
      * Start a process instance.
      * POST http://localhost:8088/v2/process-instances
      */
-    public Object startProcess(StartProcessInstanceRequest request) {
-        try {
-            logger.info("Starting process via Camunda API at {}", UrlConfig.ZEEBEE_PROCESS_API_BASE_URL);
-            ResponseEntity<Object> response = webClient.post()
-                    .uri(UrlConfig.ZEEBEE_PROCESS_API_BASE_URL)
-                    .bodyValue(request)
-                    .retrieve()
-                    .toEntity(Object.class)
-                    .block();
-
-            if (response != null && response.getStatusCode().is2xxSuccessful()) {
-                logger.debug("Successfully started process: {}", request.getProcessDefinitionId());
-                return response.getBody();
-            } else {
-                String status = (response == null) ? "null response" : response.getStatusCode().toString();
-                Object body = (response == null) ? null : response.getBody();
-                logger.error("Failed to start process: HTTP {} - {}", status, body);
-                throw new RuntimeException("Failed to start process in Camunda.");
-            }
-        } catch (Exception ex) {
-            logger.error("Exception while starting process: {}", ex.getMessage(), ex);
-            throw new RuntimeException("Error starting process in Camunda", ex);
-        }
+    public Mono<Object> startProcess(StartProcessInstanceRequest request) {
+        return transportRouter.route(Operation.START, transport -> transport.startProcess(request))
+                .transform(call -> bulkheads.limit("start", call))
+                .doOnSuccess(body -> logger.debug("Successfully started process: {}", request.getProcessDefinitionId()))
+                .onErrorMap(ex -> failure("Error starting process in Camunda", ex))
+                .transform(call -> operationMetrics.timed("start", call));
     }
 
     /**
-     * Cancel a process instance by key.
-     * POST http://localhost:8088/v2/process-instances/{processInstanceKey}/cancellation
+     * Start many process instances through the Zeebe gRPC gateway.
+     * At most {@code wrapper.bulk.start.window} creations are in flight; the source is only
+     * pulled as creations complete, so a streamed body is read at the pace of the gateway.
+     *
+     * @param requests one Mono per item; an item that cannot be read fails its own result only
+     * @return one result per request item, in request order
      */
-    public Object cancelProcessInstance(String processInstanceKey) {
-        try {
-            String url = String.format(UrlConfig.ZEEBEE_PROCESS_CANCELLATION_URL, processInstanceKey);
-            logger.info("Cancelling process instance via Camunda API at {}", url);
-            ResponseEntity<Object> response = webClient.post()
-                    .uri(url)
-                    .retrieve()
-                    .toEntity(Object.class)
-                    .block();
-
-            if (response != null && response.getStatusCode().is2xxSuccessful()) {
-                logger.debug("Successfully cancelled process instance: {}", processInstanceKey);
-                return response.getBody();
-            } else {
-                String status = (response == null) ? "null response" : response.getStatusCode().toString();
-                Object body = (response == null) ? null : response.getBody();
-                logger.error("Failed to cancel process: HTTP {} - {}", status, body);
-                throw new RuntimeException("Failed to cancel process instance in Camunda.");
-            }
-        } catch (Exception ex) {
-            logger.error("Exception while cancelling process instance: {}", ex.getMessage(), ex);
-            throw new RuntimeException("Error cancelling process instance in Camunda", ex);
+    public Flux<BatchItemResult> startProcessInstances(Flux<Mono<StartProcessInstanceRequest>> requests) {
+        return requests
+                .index()
+                .flatMapSequential(item -> item.getT2()
+                        .flatMap(request -> grpcTransport.startProcess(request)
+                                .onErrorMap(ex -> failure("Error starting process via Zeebe client", ex))
+                                .transform(call -> operationMetrics.timed("start", call)))
+                        .map(body -> BatchItemResult.ok(item.getT1(), body))
+                        .onErrorResume(ex -> Mono.just(BatchItemResult.failed(item.getT1(), ex))),
+                        bulkStartWindow)
+                .doOnComplete(() -> logger.info("Bulk start finished"));
+    }
+
+    /**
+     * Runs a stream of operations through the same paths as the single-operation endpoints,
+     * with at most {@code wrapper.ingest.concurrency} in flight. Operations are pulled from the
+     * source only as earlier ones complete, so memory stays bounded however long the stream is.
+     * A failed operation, or a line that cannot be read, is reported on its item only.
+     *
+     * @param operations one Mono per operation, failing if the operation cannot be read
+     * @return one result per operation, in stream order
+     */
+    public Flux<BatchItemResult> ingest(Flux<Mono<IngestOperation>> operations) {
+        return operations
+                .index()
+                .flatMapSequential(item -> item.getT2().flatMap(this::ingest)
+                        .map(body -> BatchItemResult.ok(item.getT1(), body))
+                        .defaultIfEmpty(BatchItemResult.ok(item.getT1(), null))
+                        .onErrorResume(ex -> Mono.just(BatchItemResult.failed(item.getT1(), ex))),
+                        ingestConcurrency)
+                .doOnComplete(() -> logger.info("Ingest stream finished"));
+    }
+
+    private Mono<Object> ingest(IngestOperation operation) {
+        return Mono.<Object>defer(() -> switch (String.valueOf(operation.getOp())) {
+            case "publish" -> publicationMessage(body(operation, publicationMessageRequest.class));
+            case "correlate" -> correlateMessage(body(operation, CorrelateMessageRequest.class));
+            case "start" -> startProcess(body(operation, StartProcessInstanceRequest.class));
+            case "setVariables" -> updateElementInstanceVariables(key(operation),
+                    body(operation, UpdateElementInstanceVariablesRequest.class)).cast(Object.class);
+            case "cancel" -> cancelProcessInstance(key(operation));
+            default -> Mono.error(new IllegalArgumentException("Unknown op: " + operation.getOp()));
+        });
+    }
+
+    private <T> T body(IngestOperation operation, Class<T> type) {
+        if (operation.getBody() == null || operation.getBody().isNull()) {
+            throw new IllegalArgumentException("Operation " + operation.getOp() + " needs a body");
         }
+        return objectMapper.convertValue(operation.getBody(), type);
     }
 
+    private static String key(IngestOperation operation) {
+        if (operation.getKey() == null || operation.getKey().isEmpty()) {
+            throw new IllegalArgumentException("Operation " + operation.getOp() + " needs a key");
+        }
+        return operation.getKey();
+    }
 
+    /**
+     * Cancel a process instance by key.
+     * POST http://localhost:8088/v2/process-instances/{processInstanceKey}/cancellation
+     */
+    public Mono<Object> cancelProcessInstance(String processInstanceKey) {
+        return transportRouter.route(Operation.CANCEL, transport -> transport.cancelProcessInstance(processInstanceKey))
+                .transform(call -> bulkheads.limit("cancel", call))
+                .doOnSuccess(body -> logger.debug("Successfully cancelled process instance: {}", processInstanceKey))
+                .doFinally(signal -> processInstanceCache.invalidate(processInstanceKey))
+                .onErrorMap(ex -> failure("Error cancelling process instance in Camunda", ex))
+                .transform(call -> operationMetrics.timed("cancel", call));
+    }
 
     /**
      * Update all variables for a given element instance (or process instance) scope.
      * PUT http://localhost:8088/v2/element-instances/{elementInstanceKey}/variables
+     * Requests carrying an operationReference are sent as they are over REST, the only
+     * transport that accepts one; others are routed (and coalesced when enabled).
      */
-    public void updateElementInstanceVariables(String elementInstanceKey, com.utility.tasklist.tasklist_wrapper.dto.UpdateElementInstanceVariablesRequest request) {
-        try {
-            String url = String.format(UrlConfig.ZEEBEE_ELEMENT_INSTANCE_VARIABLES_URL, elementInstanceKey);
-            logger.info("Updating variables for element instance via Camunda API at {}", url);
-            ResponseEntity<Void> response = webClient.put()
-                    .uri(url)
-                    .bodyValue(request)
-                    .retrieve()
-                    .toBodilessEntity()
-                    .block();
-
-            if (response == null || !response.getStatusCode().is2xxSuccessful()) {
-                String status = (response == null) ? "null response" : response.getStatusCode().toString();
-                logger.error("Failed to update variables: HTTP {}", status);
-                throw new RuntimeException("Failed to update element instance variables in Camunda.");
-            }
-        } catch (Exception ex) {
-            logger.error("Exception while updating element instance variables: {}", ex.getMessage(), ex);
-            throw new RuntimeException("Error updating element instance variables in Camunda", ex);
-        }
+    public Mono<Void> updateElementInstanceVariables(String elementInstanceKey, UpdateElementInstanceVariablesRequest request) {
+        boolean local = Boolean.TRUE.equals(request.getLocal());
+        Mono<Void> update = request.getOperationReference() != null
+                ? restTransport.setVariables(elementInstanceKey, request)
+                        .transform(call -> bulkheads.limit("set-variables", call))
+                : variableUpdateCoalescer.submit(elementInstanceKey, local, request.getVariables(),
+                        variables -> setVariables(elementInstanceKey, variables, local));
+        return update
+                // the scope may be the process instance itself
+                .doFinally(signal -> processInstanceCache.invalidate(elementInstanceKey))
+                .onErrorMap(ex -> failure("Error updating element instance variables in Camunda", ex))
+                .transform(call -> operationMetrics.timed("setVariables", call));
     }
 
     /**
      * Search process instances with filter, size, searchAfter and sort.
      * POST http://localhost:8081/v1/variable/search
+     * The response body is passed through as raw buffers, without being parsed.
      */
-    public Object searchProcessInstancesVariable(String requestBody) {
-        try {
-            // Logging the raw JSON request
-            System.out.println("Request JSON = " + requestBody);
-            System.out.println("Searching process instances via API at " + UrlConfig.ZEEBEE_PROCESS_SEARCH_URL);
-
-            ResponseEntity<Object> response = webClient.post()
-                    .uri(UrlConfig.ZEEBEE_PROCESS_SEARCH_URL)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .toEntity(Object.class)
-                    .block();
-
-            if (response != null && response.getStatusCode().is2xxSuccessful()) {
-                return response.getBody();
-            } else {
-                String status = (response == null) ? "null response" : response.getStatusCode().toString();
-                Object body = (response == null) ? null : response.getBody();
-                System.err.println("Failed to search process instances: HTTP " + status + " - " + body);
-                throw new RuntimeException("Failed to search process instances.");
-            }
-        } catch (Exception ex) {
-            System.err.println("Exception while searching process instances: " + ex.getMessage());
-            throw new RuntimeException("Error searching process instances", ex);
-        }
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchProcessInstancesVariable(String requestBody) {
+        logger.debug("Searching variables via API at {}", UrlConfig.ZEEBEE_PROCESS_SEARCH_URL);
+        return operateClient.post()
+                .uri(UrlConfig.ZEEBEE_PROCESS_SEARCH_URL)
+                .header("Content-Type", "application/json")
+                .bodyValue(requestBody)
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .transform(call -> bulkheads.limit("search", call))
+                .onErrorMap(ex -> failure("Error searching process instances", ex))
+                .transform(call -> operationMetrics.timed("search", call));
     }
 
     /**
      * Search process instances with filter, size, searchAfter and sort.
      * POST http://localhost:8081/v1/process-instance/search
+     * The response body is passed through as raw buffers, without being parsed.
      */
-    public Object searchProcessInstances(String jsonRequest) {
-    try {
-        // Log JSON being sent to Camunda
-        System.out.println("Request sent to Camunda API:\n" + jsonRequest);
-
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchProcessInstances(String jsonRequest) {
+        logger.debug("Searching process instances via API at {}", UrlConfig.ZEEBEE_PROCESS_PROCESS_INSTANCE_SEARCH_URL);
         // Send JSON string directly; WebClient won't try to map it to DTO
-        ResponseEntity<Object> response = webClient.post()
-                .uri("http://localhost:8081/v1/process-instances/search")
+        return operateClient.post()
+                .uri(UrlConfig.ZEEBEE_PROCESS_PROCESS_INSTANCE_SEARCH_URL)
                 .header("Content-Type", "application/json")
                 .bodyValue(jsonRequest)
                 .retrieve()
-                .toEntity(Object.class)
-                .block();
-
-        if (response != null && response.getStatusCode().is2xxSuccessful()) {
-            System.out.println("Response from Camunda API: " + response.getBody());
-            return response.getBody();
-        } else {
-            String status = (response == null) ? "null response" : response.getStatusCode().toString();
-            Object body = (response == null) ? null : response.getBody();
-            throw new RuntimeException("Failed to search process instances: HTTP " + status + " - " + body);
-        }
-    } catch (Exception ex) {
-        throw new RuntimeException("Error searching process instances", ex);
+                .toEntityFlux(DataBuffer.class)
+                .transform(call -> bulkheads.limit("search", call))
+                .onErrorMap(ex -> failure("Error searching process instances", ex))
+                .transform(call -> operationMetrics.timed("search", call));
     }
-}
-
-
 
+    /**
+     * Stream all process instances matching the search, following Operate's searchAfter cursor.
+     * POST http://localhost:8081/v1/process-instances/search, once per page
+     */
+    public Flux<JsonNode> streamProcessInstances(ProcessInstancesRequest request) {
+        return streamPages(UrlConfig.ZEEBEE_PROCESS_PROCESS_INSTANCE_SEARCH_URL, request, searchAfter ->
+                new ProcessInstancesRequest(request.getFilter(), request.getSize(), searchAfter, request.getSort()))
+                .transform(call -> operationMetrics.timed("searchStream", call));
+    }
 
+    /**
+     * Stream all variables matching the search, following Operate's searchAfter cursor.
+     * POST http://localhost:8081/v1/variables/search, once per page
+     */
+    public Flux<JsonNode> streamProcessInstancesVariables(SearchProcessInstancesRequest request) {
+        return streamPages(UrlConfig.ZEEBEE_PROCESS_SEARCH_URL, request, searchAfter ->
+                new SearchProcessInstancesRequest(request.getFilter(), request.getSize(), searchAfter, request.getSort()))
+                .transform(call -> operationMetrics.timed("searchStream", call));
+    }
 
+    /**
+     * Walks the pages of an Operate search and emits their items one by one.
+     *
+     * @param nextPage builds the request for the page after the given sortValues
+     */
+    private Flux<JsonNode> streamPages(String url, Object firstPage, Function<List<Object>, Object> nextPage) {
+        logger.debug("Streaming search results via API at {}", url);
+        return pageItems(fetchPage(url, firstPage), page -> {
+                    JsonNode items = page.path("items");
+                    JsonNode sortValues = page.path("sortValues");
+                    if (items.isEmpty() || !sortValues.isArray() || sortValues.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    return fetchPage(url, nextPage.apply(objectMapper.convertValue(sortValues, new TypeReference<List<Object>>() {})));
+                })
+                .transform(call -> bulkheads.limit("search", call))
+                .onErrorMap(ex -> failure("Error streaming search results", ex));
+    }
 
+    /**
+     * Emits the items of {@code firstPage} and the pages after it. The page after a page is
+     * fetched as soon as that page arrives, so it is on its way while the current items are
+     * still being written; the one after that only once the current page is drained, so at
+     * most two pages are held.
+     *
+     * @param nextPage fetches the page after the given one, or completes empty after the last
+     */
+    static Flux<JsonNode> pageItems(Mono<JsonNode> firstPage, Function<JsonNode, Mono<JsonNode>> nextPage) {
+        return firstPage
+                // toFuture starts the fetch right away; cancelling the stream cancels it
+                .expand(page -> Mono.fromFuture(nextPage.apply(page).toFuture()))
+                // prefetch 1: a page is only taken from expand once the previous one is drained
+                .flatMapIterable(page -> page.path("items"), 1);
+    }
 
+    private Mono<JsonNode> fetchPage(String url, Object request) {
+        return operateClient.post()
+                .uri(url)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(JsonNode.class);
+    }
 
     /**
      * Get process instance by key.
-     * GET http://localhost:8080/v1/process-instances/{key}
+     * GET http://localhost:8081/v1/process-instances/{key}
      */
-    public Object getProcessInstanceByKey(long key) {
-        try {
-            String url = String.format(UrlConfig.ZEEBEE_PROCESS_BY_KEY_URL, key);
-            logger.info("Fetching process instance by key via API at {}", url);
-            ResponseEntity<Object> response = webClient.get()
+    public Mono<Object> getProcessInstanceByKey(long key) {
+        return processInstanceCache.get(key, instanceKey -> {
+            String url = String.format(UrlConfig.ZEEBEE_PROCESS_BY_KEY_URL, instanceKey);
+            logger.debug("Fetching process instance by key via API at {}", url);
+            return operateClient.get()
                     .uri(url)
                     .retrieve()
-                    .toEntity(Object.class)
-                    .block();
-
-            if (response != null && response.getStatusCode().is2xxSuccessful()) {
-                return response.getBody();
-            } else {
-                String status = (response == null) ? "null response" : response.getStatusCode().toString();
-                Object body = (response == null) ? null : response.getBody();
-                logger.error("Failed to get process instance by key: HTTP {} - {}", status, body);
-                throw new RuntimeException("Failed to get process instance by key.");
-            }
-        } catch (Exception ex) {
-            logger.error("Exception while getting process instance by key: {}", ex.getMessage(), ex);
-            throw new RuntimeException("Error getting process instance by key", ex);
-        }
+                    .bodyToMono(Object.class)
+                    .transform(call -> bulkheads.limit("lookup", call));
+        }).onErrorMap(ex -> failure("Error getting process instance by key", ex))
+                .transform(call -> operationMetrics.timed("getByKey", call));
     }
 
-     /**
+    /**
      * Get process-definitions by key.
-     * GET http://localhost:8080/v1/process-definitions/{key}
+     * GET http://localhost:8081/v1/process-definitions/{key}
      */
-    public Object getprocessDefinitionsBykey(long key) {
-        try {
-            String url = String.format(UrlConfig.ZEEBEE_PROCESS_DEFINITION_BY_KEY_URL, key);
-            logger.info("Fetching process instance by key via API at {}", url);
-            ResponseEntity<Object> response = webClient.get()
+    public Mono<Object> getprocessDefinitionsBykey(long key) {
+        return processDefinitionCache.definition(key, definitionKey -> {
+            String url = String.format(UrlConfig.ZEEBEE_PROCESS_DEFINITION_BY_KEY_URL, definitionKey);
+            logger.debug("Fetching process definition by key via API at {}", url);
+            return operateClient.get()
                     .uri(url)
                     .retrieve()
-                    .toEntity(Object.class)
-                    .block();
-
-            if (response != null && response.getStatusCode().is2xxSuccessful()) {
-                return response.getBody();
-            } else {
-                String status = (response == null) ? "null response" : response.getStatusCode().toString();
-                Object body = (response == null) ? null : response.getBody();
-                logger.error("Failed to get process definition by key: HTTP {} - {}", status, body);
-                throw new RuntimeException("Failed to get process definition by key.");
-            }
-        } catch (Exception ex) {
-            logger.error("Exception while getting process definition by key: {}", ex.getMessage(), ex);
-            throw new RuntimeException("Error getting process definition by key", ex);
-        }
+                    .bodyToMono(Object.class)
+                    .transform(call -> bulkheads.limit("lookup", call));
+        }).onErrorMap(ex -> failure("Error getting process definition by key", ex))
+                .transform(call -> operationMetrics.timed("getDefinition", call));
     }
 
-     /**
+    /**
      * Get process-definitions as XML.
-     * GET http://localhost:8080/v1/process-definitions/{key}/xml
+     * GET http://localhost:8081/v1/process-definitions/{key}/xml
+     * Served from the definition cache when it is enabled; otherwise the XML is passed
+     * through as raw buffers instead of being decoded into a String.
      */
-    /**
- * Get process-definitions as XML.
- * GET http://localhost:8080/v1/process-definitions/{key}/xml
- */
-public String getProcessDefinitionAsXml(long key) {   
-    try {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getProcessDefinitionAsXml(long key) {
         String url = String.format(UrlConfig.ZEEBEE_PROCESS_DEFINITION_AS_XML_URL, key);
-        logger.info("Fetching process definition by key via API at {}", url);
-
-        ResponseEntity<String> response = webClient.get()
+        if (processDefinitionCache.isEnabled()) {
+            return processDefinitionCache.xml(key, definitionKey -> {
+                        logger.debug("Fetching process definition XML by key via API at {}", url);
+                        return operateClient.get()
+                                .uri(url)
+                                .retrieve()
+                                .bodyToMono(byte[].class)
+                                .transform(call -> bulkheads.limit("lookup", call));
+                    })
+                    // wraps the cached array without copying it
+                    .map(xml -> ResponseEntity.ok()
+                            .contentType(MediaType.TEXT_XML)
+                            .body(Flux.<DataBuffer>just(DefaultDataBufferFactory.sharedInstance.wrap(xml))))
+                    .onErrorMap(ex -> failure("Error getting process definition by key", ex))
+                    .transform(call -> operationMetrics.timed("getXml", call));
+        }
+        logger.debug("Fetching process definition XML by key via API at {}", url);
+        return operateClient.get()
                 .uri(url)
                 .retrieve()
-                .toEntity(String.class)   
-                .block();
-
-        if (response != null && response.getStatusCode().is2xxSuccessful()) {
-            return response.getBody();
-        } else {
-            String status = (response == null) ? "null response" : response.getStatusCode().toString();
-            String body = (response == null) ? null : response.getBody();
-            logger.error("Failed to get process definition by key: HTTP {} - {}", status, body);
-            throw new RuntimeException("Failed to get process definition by key.");
-        }
-    } catch (Exception ex) {
-        logger.error("Exception while getting process definition by key: {}", ex.getMessage(), ex);
-        throw new RuntimeException("Error getting process definition by key", ex);
+                .toEntityFlux(DataBuffer.class)
+                .transform(call -> bulkheads.limit("lookup", call))
+                .onErrorMap(ex -> failure("Error getting process definition by key", ex))
+                .transform(call -> operationMetrics.timed("getXml", call));
     }
-}
-
 
-public Object evaluateDecision(EvaluateDecisionRequest request) {
-    try {
-        logger.info("Evaluating decision via API at {}", UrlConfig.ZEEBEE_EVALUATE);
+    /**
+     * Evaluate a decision.
+     * POST http://localhost:8088/v2/decision-definitions/evaluation
+     * Decisions loaded into the LocalDecisionEngine are evaluated in-process instead.
+     */
+    public Mono<Object> evaluateDecision(EvaluateDecisionRequest request) {
+        return decisionResultCache.get(request, evaluation -> localDecisionEngine.evaluate(evaluation)
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.debug("Evaluating decision via API at {}", UrlConfig.ZEEBEE_EVALUATE);
+                    return orchestrationClient.post()
+                            .uri(UrlConfig.ZEEBEE_EVALUATE)
+                            .bodyValue(evaluation)
+                            .retrieve()
+                            .bodyToMono(Object.class)
+                            .transform(call -> bulkheads.limit("evaluate", call));
+                }))).onErrorMap(ex -> failure("Error evaluating decision", ex))
+                .transform(call -> operationMetrics.timed("evaluate", call));
+    }
 
-        ResponseEntity<Object> response = webClient.post()
-                .uri(UrlConfig.ZEEBEE_EVALUATE) 
-                .bodyValue(request)
-                .retrieve()
-                .toEntity(Object.class)
-                .block();
-
-        if (response != null && response.getStatusCode().is2xxSuccessful()) {
-            return response.getBody();
-        } else {
-            String status = (response == null) ? "null response" : response.getStatusCode().toString();
-            Object body = (response == null) ? null : response.getBody();
-            logger.error("Failed to evaluate decision: HTTP {} - {}", status, body);
-            throw new RuntimeException("Failed to evaluate decision.");
+    /**
+     * Logs an upstream failure and wraps it so the controller can report it.
+     * Camunda's error body is kept in the message because it is usually the only useful detail.
+     * Bulkhead rejections are passed on as they are, so the controller can answer 429/503.
+     */
+    private RuntimeException failure(String message, Throwable ex) {
+        if (ex instanceof BulkheadFullException rejected) {
+            logger.debug("{}: {}", message, rejected.getMessage());
+            return rejected;
         }
-    } catch (Exception ex) {
-        logger.error("Exception while evaluating decision: {}", ex.getMessage(), ex);
-        throw new RuntimeException("Error evaluating decision", ex);
+        if (ex instanceof WebClientResponseException wex) {
+            String body = wex.getResponseBodyAsString();
+            logger.error("{}: status={}, body={}", message, wex.getStatusCode().value(), body);
+            return new RuntimeException(message + " (" + wex.getStatusCode().value() + "): " + body, wex);
+        }
+        logger.error("{}: {}", message, ex.getMessage(), ex);
+        return new RuntimeException(message, ex);
     }
 }
-
-
-
-
-
-}
\ No newline at end of file
@@ -7,11 +7,28 @@ import org.springframework.http.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service for obtaining and caching OAuth2 access tokens from Camunda Identity.
  * Uses the client credentials grant to fetch tokens and caches them until expiry.
+ * <p>
+ * Reads never lock: the current token is an immutable snapshot behind an {@link AtomicReference}.
+ * The token is refreshed in the background before it expires, concurrent refreshes share a
+ * single in-flight fetch, and a failed refresh is retried while the old token keeps being served.
  */
 @Service
 public class CamundaTokenService {
@@ -19,6 +36,9 @@ public class CamundaTokenService {
     /** Logger for logging important events and errors */
     private static final Logger logger = LoggerFactory.getLogger(CamundaTokenService.class);
 
+    /** A token is no longer handed out this close to its expiry */
+    private static final long EXPIRY_SKEW_MILLIS = 10_000;
+
     /** Camunda Identity token endpoint URL, injected from application properties */
     @Value("${camunda.identity.token-url}")
     private String tokenUrl;
@@ -31,28 +51,130 @@ public class CamundaTokenService {
     @Value("${camunda.identity.client-secret}")
     private String clientSecret;
 
+    /** How long before expiry the background refresh starts */
+    @Value("${camunda.identity.refresh-before:60s}")
+    private Duration refreshBefore;
+
+    /** Delay between attempts when a background refresh fails */
+    @Value("${camunda.identity.refresh-retry-delay:5s}")
+    private Duration refreshRetryDelay;
+
     /** RestTemplate for making HTTP requests */
     private final RestTemplate restTemplate = new RestTemplate();
 
-    /** Cached access token */
-    private String cachedToken;
-    /** Expiry time of the cached token (epoch millis) */
-    private long tokenExpiryTime = 0;
+    /** Currently served token, swapped atomically on refresh */
+    private final AtomicReference<CachedToken> current = new AtomicReference<>();
+
+    /** Refresh in flight, shared by every caller that needs a new token */
+    private final AtomicReference<CompletableFuture<CachedToken>> inFlight = new AtomicReference<>();
+
+    /** Runs token fetches and the proactive refresh schedule */
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "camunda-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Immutable token snapshot; times are epoch millis */
+    private record CachedToken(String value, long refreshAt, long expiresAt) {
+
+        boolean usableAt(long now) {
+            return now < expiresAt - EXPIRY_SKEW_MILLIS;
+        }
+    }
 
     /**
      * Retrieves a valid access token, using the cached token if not expired.
-     * If the token is expired or missing, fetches a new one from Camunda Identity.
+     * Only blocks when there is no usable token at all (first call, or the old token expired
+     * while every refresh failed).
      * @return a valid OAuth2 access token as a String
      * @throws RuntimeException if token retrieval fails
      */
-    public synchronized String getAccessToken() {
-        long now = System.currentTimeMillis();
-        // Use cached token if still valid (with 1 minute buffer)
-        if (cachedToken != null && now < tokenExpiryTime - 60000) {
-            logger.debug("Using cached Camunda access token.");
-            return cachedToken;
+    public String getAccessToken() {
+        CachedToken token = current.get();
+        if (token != null && token.usableAt(System.currentTimeMillis())) {
+            return token.value();
+        }
+        try {
+            return refresh().join().value();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException rex ? rex : new RuntimeException(ex.getCause());
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #getAccessToken()} for reactive callers such as the WebClient filter.
+     */
+    public Mono<String> accessToken() {
+        CachedToken token = current.get();
+        if (token != null && token.usableAt(System.currentTimeMillis())) {
+            return Mono.just(token.value());
+        }
+        // the refresh is shared: a caller going away must not cancel it for the others
+        return Mono.fromFuture(this::refresh, true).map(CachedToken::value);
+    }
+
+    /**
+     * Starts a refresh unless one is already running, and returns the shared future.
+     */
+    private CompletableFuture<CachedToken> refresh() {
+        while (true) {
+            CompletableFuture<CachedToken> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<CachedToken> created = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, created)) {
+                try {
+                    refresher.execute(() -> {
+                        // cleared before completing, so a caller woken by this refresh can start the next one
+                        try {
+                            CachedToken token = fetchToken();
+                            inFlight.compareAndSet(created, null);
+                            created.complete(token);
+                        } catch (Exception ex) {
+                            inFlight.compareAndSet(created, null);
+                            created.completeExceptionally(ex);
+                        }
+                    });
+                } catch (RejectedExecutionException ex) {
+                    // shutting down: fail this refresh instead of leaving it in flight forever
+                    created.completeExceptionally(ex);
+                    inFlight.compareAndSet(created, null);
+                }
+                return created;
+            }
         }
+    }
+
+    /**
+     * Background refresh: swaps in the new token, or retries while the old one is still usable.
+     */
+    private void refreshInBackground() {
+        refresh().whenComplete((token, ex) -> {
+            if (ex == null) {
+                return;
+            }
+            CachedToken old = current.get();
+            if (old != null && old.usableAt(System.currentTimeMillis())) {
+                logger.warn("Background refresh of Camunda access token failed, retrying in {}", refreshRetryDelay);
+                schedule(this::refreshInBackground, refreshRetryDelay.toMillis());
+            }
+        });
+    }
 
+    private void schedule(Runnable task, long delayMillis) {
+        if (!refresher.isShutdown()) {
+            refresher.schedule(task, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Fetches a new token from Camunda Identity, publishes it and schedules its refresh.
+     */
+    private CachedToken fetchToken() {
+        long now = System.currentTimeMillis();
+        Timer.Sample sample = Timer.start();
         logger.info("Fetching new Camunda access token from Identity.");
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
@@ -75,20 +197,39 @@ public class CamundaTokenService {
             ResponseEntity<Map> response = restTemplate.exchange(tokenUrl, HttpMethod.POST, request, Map.class);
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 Map bodyMap = response.getBody();
-                cachedToken = (String) bodyMap.get("access_token");
+                String accessToken = (String) bodyMap.get("access_token");
                 Integer expiresIn = bodyMap.get("expires_in") instanceof Integer
                         ? (Integer) bodyMap.get("expires_in")
                         : Integer.parseInt(bodyMap.get("expires_in").toString());
-                tokenExpiryTime = now + expiresIn * 1000L;
+                long lifetime = expiresIn * 1000L;
+                // Refresh ahead of expiry, but never earlier than half-way for short-lived tokens
+                long refreshAt = now + Math.max(lifetime - refreshBefore.toMillis(), lifetime / 2);
+                CachedToken token = new CachedToken(accessToken, refreshAt, now + lifetime);
+                current.set(token);
+                schedule(this::refreshInBackground, refreshAt - System.currentTimeMillis());
                 logger.info("Fetched new Camunda access token, expires in {} seconds.", expiresIn);
-                return cachedToken;
+                sample.stop(fetchTimer("success"));
+                return token;
             } else {
                 logger.error("Failed to fetch token: HTTP {} - {}", response.getStatusCode(), response.getBody());
                 throw new RuntimeException("Failed to fetch Camunda access token.");
             }
         } catch (Exception ex) {
+            sample.stop(fetchTimer("failure"));
             logger.error("Exception while fetching Camunda access token: {}", ex.getMessage(), ex);
             throw new RuntimeException("Error fetching Camunda access token", ex);
         }
     }
-}
\ No newline at end of file
+
+    /** Duration of token requests to Identity */
+    private static Timer fetchTimer(String outcome) {
+        return Timer.builder("wrapper.token.fetch")
+                .tag("outcome", outcome)
+                .register(Metrics.globalRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+}
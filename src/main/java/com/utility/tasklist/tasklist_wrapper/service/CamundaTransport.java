@@ -0,0 +1,44 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.util.Map;
+
+import com.utility.tasklist.tasklist_wrapper.dto.StartProcessInstanceRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.publicationMessageRequest;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * One way of reaching the Zeebe broker: the orchestration REST API or the gRPC gateway.
+ * Both implementations return the same response bodies, so {@link TransportRouter} can pick
+ * either one per operation. Implementations do not log failures or wrap errors; that is left
+ * to {@link CamundaTaskService}.
+ * <p>
+ * Message correlation is not part of the contract: the Zeebe client of this version has no
+ * correlation command, so correlations always go to {@link RestCamundaTransport}.
+ */
+public interface CamundaTransport {
+
+    /** Operations offered by the transports, used for routing policies and metrics */
+    enum Operation {
+        PUBLISH, START, CANCEL, SET_VARIABLES;
+
+        /** Name used in configuration and metric tags, e.g. set-variables */
+        public String tag() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    /** Short name used in configuration and metric tags: rest or grpc */
+    String name();
+
+    /** @return key (the message key) and tenantId */
+    Mono<Object> publishMessage(publicationMessageRequest request);
+
+    /** @return the created instance (processDefinitionKey, processInstanceKey, ...) */
+    Mono<Object> startProcess(StartProcessInstanceRequest request);
+
+    /** Completes empty once the cancellation has been accepted */
+    Mono<Object> cancelProcessInstance(String processInstanceKey);
+
+    Mono<Void> setVariables(String scopeKey, Map<String, Object> variables, boolean local);
+}
@@ -0,0 +1,183 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.utility.tasklist.tasklist_wrapper.service.BulkheadFullException.Reason;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Orders correlations per correlationKey while still sending many at once.
+ * Requests are spread over {@code lanes} by correlationKey hash and each lane sends them in
+ * arrival order, with up to {@code depth} in flight. A request whose key is still in flight
+ * waits (and so does the lane behind it), so Camunda receives correlations of one key in the
+ * order they arrived here. Different keys in a lane are pipelined over the pooled keep-alive
+ * connections of the transport.
+ * <p>
+ * The pipeline is opt-in: a waiting head also holds back unrelated keys behind it in its lane.
+ * Correlations without a correlationKey have no order to keep and bypass it.
+ * <p>
+ * Gauges {@code wrapper.correlation.lane.queued} and {@code wrapper.correlation.lane.in.flight},
+ * counter {@code wrapper.correlation.lane.completed} (tag: lane).
+ */
+@Component
+public class CorrelationPipeline {
+
+    private final boolean enabled;
+    private final Lane[] lanes;
+
+    @Autowired
+    public CorrelationPipeline(
+            @Value("${wrapper.correlation.pipeline.enabled:false}") boolean enabled,
+            @Value("${wrapper.correlation.pipeline.lanes:0}") int lanes,
+            @Value("${wrapper.correlation.pipeline.depth:32}") int depth,
+            @Value("${wrapper.correlation.pipeline.capacity:10000}") int capacity) {
+        this(enabled, lanes, depth, capacity, Metrics.globalRegistry);
+    }
+
+    CorrelationPipeline(boolean enabled, int lanes, int depth, int capacity, MeterRegistry registry) {
+        this.enabled = enabled;
+        // 0 = one lane per core
+        int count = lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors();
+        this.lanes = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            this.lanes[i] = new Lane(i, depth, capacity, registry);
+        }
+    }
+
+    /**
+     * Queues a correlation in the lane of its key.
+     *
+     * @param call sends the correlation; subscribed when the lane gets to it
+     */
+    public Mono<Object> submit(String correlationKey, Supplier<Mono<Object>> call) {
+        if (!enabled || correlationKey == null || correlationKey.isEmpty()) {
+            return call.get();
+        }
+        Lane lane = lanes[Math.floorMod(correlationKey.hashCode(), lanes.length)];
+        // once queued, the correlation is sent even if the caller goes away, so order is kept
+        return Mono.fromFuture(() -> lane.submit(correlationKey, call), true);
+    }
+
+    private static final class Lane {
+
+        private record Pending(String key, Supplier<Mono<Object>> call, CompletableFuture<Object> result) {
+        }
+
+        private final int index;
+        private final int depth;
+        private final int capacity;
+
+        /** Guarded by this */
+        private final Deque<Pending> queue = new ArrayDeque<>();
+        /** Keys with a correlation in flight; guarded by this */
+        private final Set<String> inFlight = new HashSet<>();
+        /** Whether a thread is in the dispatch loop; guarded by this */
+        private boolean dispatching;
+        /** Whether the state changed while dispatching; guarded by this */
+        private boolean changed;
+
+        private final Counter completed;
+
+        Lane(int index, int depth, int capacity, MeterRegistry registry) {
+            this.index = index;
+            this.depth = depth;
+            this.capacity = capacity;
+            String lane = String.valueOf(index);
+            Gauge.builder("wrapper.correlation.lane.queued", this, Lane::queued)
+                    .description("Correlations waiting in the lane")
+                    .tag("lane", lane)
+                    .register(registry);
+            Gauge.builder("wrapper.correlation.lane.in.flight", this, Lane::inFlight)
+                    .description("Correlations of the lane sent and not answered yet")
+                    .tag("lane", lane)
+                    .register(registry);
+            this.completed = Counter.builder("wrapper.correlation.lane.completed")
+                    .description("Correlations of the lane answered, successfully or not")
+                    .tag("lane", lane)
+                    .register(registry);
+        }
+
+        CompletableFuture<Object> submit(String key, Supplier<Mono<Object>> call) {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            synchronized (this) {
+                if (queue.size() >= capacity) {
+                    throw new BulkheadFullException("correlate", Reason.QUEUE_FULL,
+                            "Correlation lane " + index + " is full (" + queue.size() + " queued)");
+                }
+                queue.addLast(new Pending(key, call, result));
+            }
+            dispatch();
+            return result;
+        }
+
+        /**
+         * Sends queued correlations in order while the window and the head's key allow it.
+         * One thread dispatches at a time; correlations completing synchronously only flag a
+         * change instead of recursing.
+         */
+        private void dispatch() {
+            synchronized (this) {
+                if (dispatching) {
+                    changed = true;
+                    return;
+                }
+                dispatching = true;
+            }
+            while (true) {
+                List<Pending> sending = new ArrayList<>();
+                synchronized (this) {
+                    while (inFlight.size() < depth && !queue.isEmpty() && !inFlight.contains(queue.peekFirst().key())) {
+                        Pending next = queue.pollFirst();
+                        inFlight.add(next.key());
+                        sending.add(next);
+                    }
+                }
+                for (Pending pending : sending) {
+                    Mono.defer(pending.call())
+                            .doFinally(signal -> done(pending))
+                            .subscribe(pending.result()::complete, pending.result()::completeExceptionally,
+                                    () -> pending.result().complete(null));
+                }
+                synchronized (this) {
+                    if (!changed) {
+                        dispatching = false;
+                        return;
+                    }
+                    changed = false;
+                }
+            }
+        }
+
+        private void done(Pending pending) {
+            completed.increment();
+            synchronized (this) {
+                inFlight.remove(pending.key());
+            }
+            dispatch();
+        }
+
+        private synchronized int queued() {
+            return queue.size();
+        }
+
+        private synchronized int inFlight() {
+            return inFlight.size();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.utility.tasklist.tasklist_wrapper.dto.EvaluateDecisionRequest;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Opt-in memoization of decision evaluations.
+ * A decision is a pure function of its definition and input variables, so identical requests
+ * can reuse an earlier result. The cache key is a SHA-256 of the request serialized with map
+ * entries sorted by key, so variable order does not matter.
+ * Only requests naming a decisionDefinitionKey are cached by default: the key pins one deployed
+ * version, so a redeployment (new key) can never be answered with the old result. Requests by
+ * decisionDefinitionId resolve to the latest version and are only cached with
+ * {@code cache-by-id}, relying on the TTL to pick up redeployments.
+ */
+@Component
+public class DecisionResultCache {
+
+    private final boolean enabled;
+    private final boolean cacheById;
+    private final AsyncCache<String, Object> results;
+    private final ObjectWriter canonicalWriter;
+
+    public DecisionResultCache(
+            ObjectMapper objectMapper,
+            @Value("${wrapper.cache.decision-evaluations.enabled:false}") boolean enabled,
+            @Value("${wrapper.cache.decision-evaluations.cache-by-id:false}") boolean cacheById,
+            @Value("${wrapper.cache.decision-evaluations.ttl:10m}") Duration ttl,
+            @Value("${wrapper.cache.decision-evaluations.max-size:100000}") long maxSize) {
+        this.enabled = enabled;
+        this.cacheById = cacheById;
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        this.canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, results, "decision-evaluations");
+    }
+
+    /**
+     * @param evaluator evaluates the decision on a miss (or always, for requests that are not cacheable)
+     */
+    public Mono<Object> get(EvaluateDecisionRequest request, Function<EvaluateDecisionRequest, Mono<Object>> evaluator) {
+        if (!isCacheable(request)) {
+            return evaluator.apply(request);
+        }
+        String key = cacheKey(request);
+        // a waiter going away must not cancel the load shared with the others
+        return Mono.fromFuture(() -> results.get(key, (k, executor) -> evaluator.apply(request).toFuture()), true);
+    }
+
+    private boolean isCacheable(EvaluateDecisionRequest request) {
+        if (!enabled) {
+            return false;
+        }
+        return request.getDecisionDefinitionKey() != null || (cacheById && request.getDecisionDefinitionId() != null);
+    }
+
+    String cacheKey(EvaluateDecisionRequest request) {
+        Map<String, Object> canonical = new LinkedHashMap<>();
+        canonical.put("decisionDefinitionKey", request.getDecisionDefinitionKey());
+        canonical.put("decisionDefinitionId", request.getDecisionDefinitionKey() == null ? request.getDecisionDefinitionId() : null);
+        canonical.put("tenantId", request.getTenantId());
+        canonical.put("variables", request.getVariables());
+        try {
+            byte[] json = canonicalWriter.writeValueAsBytes(canonical);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not build decision cache key", ex);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.utility.tasklist.tasklist_wrapper.dto.StartProcessInstanceRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.publicationMessageRequest;
+
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.command.CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep3;
+import io.camunda.zeebe.client.api.command.PublishMessageCommandStep1.PublishMessageCommandStep3;
+import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+import reactor.core.publisher.Mono;
+
+/**
+ * Transport over the Zeebe gRPC gateway. Responses are shaped like the REST bodies, so a
+ * client sees the same response whichever transport the router picked.
+ */
+@Component
+public class GrpcCamundaTransport implements CamundaTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcCamundaTransport.class);
+
+    private final ZeebeClient zeebeClient;
+
+    public GrpcCamundaTransport(ZeebeClient zeebeClient) {
+        this.zeebeClient = zeebeClient;
+    }
+
+    @Override
+    public String name() {
+        return "grpc";
+    }
+
+    @Override
+    public Mono<Object> publishMessage(publicationMessageRequest request) {
+        return Mono.fromCompletionStage(() -> {
+                    PublishMessageCommandStep3 command = zeebeClient.newPublishMessageCommand()
+                            .messageName(request.getName())
+                            .correlationKey(request.getCorrelationKey() == null ? "" : request.getCorrelationKey());
+                    // Same default TTL as the REST path (the Zeebe client would otherwise use one hour)
+                    command = command.timeToLive(Duration.ofMillis(request.getTimeToLive() == null ? 0L : request.getTimeToLive()));
+                    if (request.getMessageId() != null) {
+                        command = command.messageId(request.getMessageId());
+                    }
+                    if (request.getVariables() != null) {
+                        command = command.variables(request.getVariables());
+                    }
+                    if (request.getTenantId() != null) {
+                        command = command.tenantId(request.getTenantId());
+                    }
+                    return command.send();
+                })
+                .<Object>map(response -> {
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    // the REST API answers {"key", "tenantId"}, with the key as a string
+                    body.put("key", String.valueOf(response.getMessageKey()));
+                    body.put("tenantId", response.getTenantId());
+                    return body;
+                });
+    }
+
+    /**
+     * Starts the latest version of the process.
+     */
+    @Override
+    public Mono<Object> startProcess(StartProcessInstanceRequest request) {
+        return Mono.fromCompletionStage(() -> {
+                    CreateProcessInstanceCommandStep3 command = zeebeClient.newCreateInstanceCommand()
+                            .bpmnProcessId(request.getProcessDefinitionId())
+                            .latestVersion();
+                    if (request.getVariables() != null) {
+                        command = command.variables(request.getVariables());
+                    }
+                    return command.send();
+                })
+                .map(this::toStartResponse);
+    }
+
+    private Object toStartResponse(ProcessInstanceEvent event) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        // keys are strings in the REST API (they exceed the safe integer range of JSON clients)
+        body.put("processDefinitionKey", String.valueOf(event.getProcessDefinitionKey()));
+        body.put("processDefinitionId", event.getBpmnProcessId());
+        body.put("processDefinitionVersion", event.getVersion());
+        body.put("processInstanceKey", String.valueOf(event.getProcessInstanceKey()));
+        body.put("tenantId", event.getTenantId());
+        return body;
+    }
+
+    @Override
+    public Mono<Object> cancelProcessInstance(String processInstanceKey) {
+        return Mono.fromCompletionStage(() -> {
+                    logger.debug("Cancelling process instance {} via Zeebe client", processInstanceKey);
+                    return zeebeClient.newCancelInstanceCommand(Long.parseLong(processInstanceKey)).send();
+                })
+                .then(Mono.empty());
+    }
+
+    /**
+     * If local=true, variables are set on the element scope only; otherwise they propagate
+     * to the nearest scope defining them.
+     */
+    @Override
+    public Mono<Void> setVariables(String scopeKey, Map<String, Object> variables, boolean local) {
+        return Mono.fromCompletionStage(() -> {
+                    logger.debug("Setting variables via Zeebe client for scopeKey={} local={}", scopeKey, local);
+                    return zeebeClient
+                        .newSetVariablesCommand(Long.parseLong(scopeKey))
+                        .variables(variables)
+                        .local(local)
+                        .send();
+                })
+                .then();
+    }
+}
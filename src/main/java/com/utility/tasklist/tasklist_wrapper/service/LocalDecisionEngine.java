@@ -0,0 +1,204 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.camunda.bpm.dmn.engine.DmnDecision;
+import org.camunda.bpm.dmn.engine.DmnDecisionResult;
+import org.camunda.bpm.dmn.engine.DmnDecisionResultEntries;
+import org.camunda.bpm.dmn.engine.DmnEngine;
+import org.camunda.bpm.dmn.engine.DmnEngineConfiguration;
+import org.camunda.bpm.model.dmn.Dmn;
+import org.camunda.bpm.model.dmn.DmnModelInstance;
+import org.camunda.bpm.model.dmn.HitPolicy;
+import org.camunda.bpm.model.dmn.instance.Decision;
+import org.camunda.bpm.model.dmn.instance.DecisionTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.tasklist.tasklist_wrapper.config.UrlConfig;
+import com.utility.tasklist.tasklist_wrapper.dto.EvaluateDecisionRequest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Optional in-process evaluation of selected decisions.
+ * On startup the DMN of each configured decision definition key is downloaded from Operate
+ * once and compiled with the Camunda DMN engine (FEEL); matching evaluation requests are then
+ * answered locally instead of going to the gateway.
+ * <p>
+ * Only requests naming one of the loaded decisionDefinitionKeys are handled here. Anything
+ * else (unknown keys, requests by id, tenant mismatch, decisions that failed to load or to
+ * evaluate) yields an empty result so the caller falls back to the remote evaluation.
+ * Local evaluations are not recorded as decision instances in Zeebe, so the response carries
+ * no decisionInstanceKey, and it has no evaluatedDecisions detail either: only the output is
+ * shaped like Zeebe's, which LocalDecisionEngineTest checks against a corpus of decisions.
+ */
+@Component
+public class LocalDecisionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalDecisionEngine.class);
+
+    private final WebClient operateClient;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<Long> decisionKeys;
+    private final DmnEngine dmnEngine = DmnEngineConfiguration.createDefaultDmnEngineConfiguration().buildEngine();
+
+    /** Compiled decisions by decision definition key */
+    private final Map<Long, LocalDecision> decisions = new ConcurrentHashMap<>();
+
+    /** A compiled decision together with the metadata echoed in the evaluation response */
+    private record LocalDecision(DmnDecision decision, boolean collectsResults, JsonNode definition) {
+    }
+
+    public LocalDecisionEngine(@Qualifier("operateWebClient") WebClient operateClient,
+                               ObjectMapper objectMapper,
+                               @Value("${wrapper.decisions.local.enabled:false}") boolean enabled,
+                               @Value("${wrapper.decisions.local.decision-keys:}") List<Long> decisionKeys) {
+        this.operateClient = operateClient;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.decisionKeys = decisionKeys == null ? List.of() : decisionKeys;
+    }
+
+    /**
+     * Loads the configured decisions in the background; until a decision is loaded its
+     * requests simply go to the gateway.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDecisions() {
+        if (!enabled || decisionKeys.isEmpty()) {
+            return;
+        }
+        Flux.fromIterable(decisionKeys)
+                .flatMap(key -> load(key)
+                        .doOnNext(decision -> {
+                            decisions.put(key, decision);
+                            logger.info("Loaded decision {} for local evaluation", key);
+                        })
+                        .onErrorResume(ex -> {
+                            logger.warn("Could not load decision {} for local evaluation, it stays remote: {}", key, ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    private Mono<LocalDecision> load(long key) {
+        return operateClient.get()
+                .uri(String.format(UrlConfig.ZEEBEE_DECISION_DEFINITION_BY_KEY_URL, key))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .flatMap(definition -> operateClient.get()
+                        .uri(String.format(UrlConfig.ZEEBEE_DECISION_REQUIREMENTS_AS_XML_URL,
+                                definition.path("decisionRequirementsKey").asText()))
+                        .retrieve()
+                        .bodyToMono(byte[].class)
+                        .map(xml -> compile(definition, xml)));
+    }
+
+    /**
+     * Compiles a decision from its Operate definition and decision-requirements XML and serves
+     * it locally from now on, as {@link #loadDecisions()} does for each configured key.
+     */
+    public void register(JsonNode definition, byte[] xml) {
+        decisions.put(definition.path("key").asLong(), compile(definition, xml));
+    }
+
+    private LocalDecision compile(JsonNode definition, byte[] xml) {
+        String decisionId = definition.path("decisionId").asText();
+        DmnModelInstance model = Dmn.readModelFromStream(new ByteArrayInputStream(xml));
+        Decision modelDecision = model.getModelElementById(decisionId);
+        boolean collectsResults = false;
+        if (modelDecision != null && modelDecision.getExpression() instanceof DecisionTable table) {
+            HitPolicy hitPolicy = table.getHitPolicy();
+            collectsResults = (hitPolicy == HitPolicy.COLLECT && table.getAggregation() == null)
+                    || hitPolicy == HitPolicy.RULE_ORDER
+                    || hitPolicy == HitPolicy.OUTPUT_ORDER;
+        }
+        return new LocalDecision(dmnEngine.parseDecision(decisionId, model), collectsResults, definition);
+    }
+
+    /**
+     * Evaluates the request locally when possible.
+     *
+     * @return the evaluation response, or an empty Mono when the request must go to the gateway
+     */
+    public Mono<Object> evaluate(EvaluateDecisionRequest request) {
+        if (!enabled || request.getDecisionDefinitionKey() == null) {
+            return Mono.empty();
+        }
+        LocalDecision local;
+        try {
+            local = decisions.get(Long.parseLong(request.getDecisionDefinitionKey()));
+        } catch (NumberFormatException ex) {
+            return Mono.empty();
+        }
+        if (local == null) {
+            return Mono.empty();
+        }
+        String tenantId = local.definition().path("tenantId").asText(null);
+        if (request.getTenantId() != null && !Objects.equals(request.getTenantId(), tenantId)) {
+            return Mono.empty();
+        }
+        return Mono.<Object>fromCallable(() -> response(local, evaluate(local, request.getVariables())))
+                .onErrorResume(ex -> {
+                    logger.warn("Local evaluation of decision {} failed, falling back to the gateway: {}",
+                            request.getDecisionDefinitionKey(), ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Shapes the DMN result like Zeebe does: one output column gives the value, several give a
+     * map; collecting hit policies give a list of those, single-hit policies a single one.
+     */
+    private Object evaluate(LocalDecision local, Map<String, Object> variables) {
+        DmnDecisionResult result = dmnEngine.evaluateDecision(local.decision(),
+                variables == null ? Collections.emptyMap() : variables);
+        if (local.collectsResults()) {
+            List<Object> outputs = new ArrayList<>();
+            for (DmnDecisionResultEntries entries : result) {
+                outputs.add(ruleOutput(entries));
+            }
+            return outputs;
+        }
+        return result.isEmpty() ? null : ruleOutput(result.getFirstResult());
+    }
+
+    private Object ruleOutput(DmnDecisionResultEntries entries) {
+        return entries.size() == 1 ? entries.getSingleEntry() : entries.getEntryMap();
+    }
+
+    private Map<String, Object> response(LocalDecision local, Object output) throws Exception {
+        JsonNode definition = local.definition();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("decisionDefinitionId", definition.path("decisionId").asText());
+        body.put("decisionDefinitionKey", definition.path("key").asLong());
+        body.put("decisionDefinitionName", definition.path("name").asText(null));
+        body.put("decisionDefinitionVersion", definition.path("version").asInt());
+        body.put("decisionRequirementsId", definition.path("decisionRequirementsId").asText(null));
+        body.put("decisionRequirementsKey", definition.path("decisionRequirementsKey").asLong());
+        body.put("output", objectMapper.writeValueAsString(output));
+        body.put("failedDecisionDefinitionId", "");
+        body.put("failureMessage", "");
+        body.put("tenantId", definition.path("tenantId").asText(null));
+        body.put("evaluatedLocally", true);
+        return body;
+    }
+}
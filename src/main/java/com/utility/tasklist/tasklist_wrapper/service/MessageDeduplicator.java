@@ -0,0 +1,95 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers retried publications and correlations carrying the same messageId from memory.
+ * A request whose messageId was already sent within the window gets the first call's result,
+ * and concurrent duplicates share the call still in flight; failed calls are forgotten, so a
+ * retry after a failure goes upstream again. Requests without a messageId are not deduplicated.
+ * <p>
+ * Entries are keyed by a 64-bit hash of operation, message name, tenant and messageId rather
+ * than by the strings themselves, which keeps an entry small. {@code wrapper.dedup.hits}
+ * (tag: operation) counts the upstream calls saved.
+ */
+@Component
+public class MessageDeduplicator {
+
+    private final boolean enabled;
+    private final AsyncCache<Long, Object> results;
+    private final Map<String, Counter> hits = new ConcurrentHashMap<>();
+
+    public MessageDeduplicator(
+            @Value("${wrapper.dedup.enabled:true}") boolean enabled,
+            @Value("${wrapper.dedup.window:10m}") Duration window,
+            @Value("${wrapper.dedup.max-entries:1000000}") long maxEntries) {
+        this.enabled = enabled;
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, results, "message-ids");
+    }
+
+    /**
+     * @param call sends the request upstream; only subscribed for the first request of a messageId
+     */
+    public Mono<Object> deduplicate(String operation, String name, String tenantId, String messageId,
+                                    Supplier<Mono<Object>> call) {
+        if (!enabled || messageId == null || messageId.isEmpty()) {
+            return call.get();
+        }
+        long key = hash(operation, name, tenantId, messageId);
+        // the shared call must not be cancelled by one of the requests waiting for it
+        return Mono.fromFuture(() -> {
+            boolean[] sent = new boolean[1];
+            CompletableFuture<Object> result = results.get(key, (k, executor) -> {
+                sent[0] = true;
+                return call.get().toFuture();
+            });
+            if (!sent[0]) {
+                hits.computeIfAbsent(operation, op -> Counter.builder("wrapper.dedup.hits")
+                        .description("Requests answered with the result of an earlier request with the same messageId")
+                        .tag("operation", op)
+                        .register(Metrics.globalRegistry)).increment();
+            }
+            return result;
+        }, true);
+    }
+
+    /** 64-bit FNV-1a over the fields, separated by a zero byte, with a final avalanche step */
+    static long hash(String... fields) {
+        long hash = 0xcbf29ce484222325L;
+        for (String field : fields) {
+            if (field != null) {
+                for (byte b : field.getBytes(StandardCharsets.UTF_8)) {
+                    hash ^= b & 0xff;
+                    hash *= 0x100000001b3L;
+                }
+            }
+            // the zero byte separating fields
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,65 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Reads newline-delimited JSON request bodies item by item.
+ * The body is read lazily as items are requested downstream, so memory use does not
+ * depend on the body size and a slow consumer slows down reading instead of buffering.
+ * Each line is parsed on its own: a malformed or wrongly typed line fails its own item,
+ * and the lines after it are still read. Blank lines are skipped.
+ */
+@Component
+public class NdjsonReader {
+
+    private final ObjectMapper objectMapper;
+    private final Scheduler blockingScheduler;
+
+    public NdjsonReader(ObjectMapper objectMapper, Scheduler blockingScheduler) {
+        this.objectMapper = objectMapper;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * @param body the request body; read on the blocking scheduler because servlet input blocks
+     * @param type the type of each line
+     * @return one Mono per line, with the parsed item or the error parsing that line
+     */
+    public <T> Flux<Mono<T>> read(InputStream body, Class<T> type) {
+        ObjectReader reader = objectMapper.readerFor(type);
+        return Flux.<Mono<T>, BufferedReader>using(
+                        () -> new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                        lines -> Flux.fromStream(lines.lines())
+                                .filter(line -> !line.isBlank())
+                                .map(line -> Mono.fromCallable(() -> parse(reader, line, type))),
+                        lines -> {
+                            try {
+                                lines.close();
+                            } catch (IOException ignored) {
+                                // the request is over either way
+                            }
+                        })
+                .subscribeOn(blockingScheduler);
+    }
+
+    private static <T> T parse(ObjectReader reader, String line, Class<T> type) throws IOException {
+        T item = reader.readValue(line);
+        if (item == null) {
+            throw new IllegalArgumentException("Expected a " + type.getSimpleName() + " but the line is null");
+        }
+        return item;
+    }
+}
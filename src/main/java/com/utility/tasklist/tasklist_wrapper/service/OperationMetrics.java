@@ -0,0 +1,55 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times the operations of {@link CamundaTaskService} as seen by the wrapper, caches included,
+ * in the {@code wrapper.operation} timer (tags: operation, outcome). Together with
+ * {@code wrapper.transport.latency} (the broker call alone) and {@code http.server.requests}
+ * (the whole HTTP exchange) this shows where the time of a request goes.
+ * <p>
+ * A Mono is timed until its result, a Flux until its last element; for pass-through searches
+ * that is when the response head has arrived, the body is streamed afterwards.
+ */
+@Component
+public class OperationMetrics {
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public <T> Mono<T> timed(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return call.doFinally(signal -> sample.stop(timer(operation, signal)));
+        });
+    }
+
+    public <T> Flux<T> timed(String operation, Flux<T> call) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return call.doFinally(signal -> sample.stop(timer(operation, signal)));
+        });
+    }
+
+    private Timer timer(String operation, SignalType signal) {
+        String outcome = switch (signal) {
+            case ON_ERROR -> "failure";
+            case CANCEL -> "cancelled";
+            default -> "success";
+        };
+        return timers.computeIfAbsent(operation + '/' + outcome, key -> Timer.builder("wrapper.operation")
+                .description("Wrapper operations, including cache hits")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry));
+    }
+}
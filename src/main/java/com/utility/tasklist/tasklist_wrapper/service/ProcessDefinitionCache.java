@@ -0,0 +1,73 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory cache of process definitions and their BPMN XML, keyed by definition key.
+ * A deployed definition never changes under its key, so entries are only evicted for space:
+ * definitions by count, XML by total byte size. Concurrent misses for the same key share one
+ * upstream call, and failed loads are not cached.
+ * Hit/miss counts are exported as the {@code cache.*} meters for
+ * {@code process-definitions} and {@code process-definition-xml}.
+ */
+@Component
+public class ProcessDefinitionCache {
+
+    private final boolean enabled;
+    private final AsyncCache<Long, Object> definitions;
+    private final AsyncCache<Long, byte[]> xml;
+
+    public ProcessDefinitionCache(
+            @Value("${wrapper.cache.process-definitions.enabled:true}") boolean enabled,
+            @Value("${wrapper.cache.process-definitions.max-definitions:10000}") long maxDefinitions,
+            @Value("${wrapper.cache.process-definitions.max-xml-bytes:67108864}") long maxXmlBytes) {
+        this.enabled = enabled;
+        this.definitions = Caffeine.newBuilder()
+                .maximumSize(maxDefinitions)
+                .recordStats()
+                .buildAsync();
+        this.xml = Caffeine.newBuilder()
+                .maximumWeight(maxXmlBytes)
+                .weigher((Long key, byte[] value) -> value.length)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, definitions, "process-definitions");
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, xml, "process-definition-xml");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param loader fetches the definition from Operate on a miss
+     */
+    public Mono<Object> definition(long key, Function<Long, Mono<Object>> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        // a waiter going away must not cancel the load shared with the others
+        return Mono.fromFuture(() -> definitions.get(key, (k, executor) -> loader.apply(k).toFuture()), true);
+    }
+
+    /**
+     * @param loader fetches the XML bytes from Operate on a miss
+     */
+    public Mono<byte[]> xml(long key, Function<Long, Mono<byte[]>> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        // a waiter going away must not cancel the load shared with the others
+        return Mono.fromFuture(() -> xml.get(key, (k, executor) -> loader.apply(k).toFuture()), true);
+    }
+}
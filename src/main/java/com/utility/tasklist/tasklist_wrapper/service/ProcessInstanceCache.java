@@ -0,0 +1,66 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Short-lived read-through cache of process instances, keyed by process instance key.
+ * Instances change state, so entries only live for a short TTL; within it, polls of the same
+ * instance are answered from memory and concurrent lookups share one Operate call.
+ * The wrapper invalidates an entry itself when it cancels the instance or updates its variables.
+ */
+@Component
+public class ProcessInstanceCache {
+
+    private final boolean enabled;
+    private final AsyncCache<Long, Object> instances;
+
+    public ProcessInstanceCache(
+            @Value("${wrapper.cache.process-instances.enabled:true}") boolean enabled,
+            @Value("${wrapper.cache.process-instances.ttl:2s}") Duration ttl,
+            @Value("${wrapper.cache.process-instances.max-size:10000}") long maxSize) {
+        this.enabled = enabled;
+        this.instances = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, instances, "process-instances");
+    }
+
+    /**
+     * @param loader fetches the instance from Operate on a miss
+     */
+    public Mono<Object> get(long key, Function<Long, Mono<Object>> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        // a waiter going away must not cancel the load shared with the others
+        return Mono.fromFuture(() -> instances.get(key, (k, executor) -> loader.apply(k).toFuture()), true);
+    }
+
+    public void invalidate(long key) {
+        instances.synchronous().invalidate(key);
+    }
+
+    /**
+     * Invalidates by a key received as text; anything that is not a number cannot be cached anyway.
+     */
+    public void invalidate(String key) {
+        try {
+            invalidate(Long.parseLong(key));
+        } catch (NumberFormatException ignored) {
+            // not a cached key
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal of memory-mapped segment files with a single reader.
+ * <p>
+ * Segments are named after the sequence of their first entry ({@code segment-<sequence>.log}).
+ * An entry is {@code [int length][int crc32c][long sequence][long appendedAt][payload]}; its
+ * length is written last, so a torn entry reads as the end of the journal. A length of -1 means
+ * "continued in the next segment". The {@code checkpoint} file holds the sequence up to which
+ * all entries are acknowledged; on open, entries after it are read again. Segments holding only
+ * acknowledged entries are closed and deleted; the mapping, and with it the disk space of the
+ * deleted file, is released once the garbage collector frees the buffer.
+ * <p>
+ * Appends are serialized; {@link #read} and {@link #acknowledge} must be called from one thread.
+ */
+public class PublicationJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicationJournal.class);
+
+    private static final int HEADER = 24;
+    private static final int NEXT_SEGMENT = -1;
+    /** Room always left at the end of a segment for the NEXT_SEGMENT marker */
+    private static final int MARKER = 4;
+
+    public record Entry(long sequence, long appendedAt, byte[] payload) {
+    }
+
+    private record Segment(long firstSequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final FileChannel checkpointChannel;
+    private final MappedByteBuffer checkpoint;
+
+    /** Guarded by this */
+    private Segment writeSegment;
+    /** Guarded by this */
+    private int writeOffset;
+    /** Guarded by this */
+    private long nextSequence;
+    /** Guarded by this */
+    private boolean closed;
+    /** Last sequence whose entry is completely written */
+    private volatile long committed;
+    private volatile long acknowledged;
+
+    // reader state, confined to the reading thread
+    private Segment readSegment;
+    private int readOffset;
+    private long readSequence;
+
+    public PublicationJournal(Path directory, int segmentSize, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        this.checkpointChannel = FileChannel.open(directory.resolve("checkpoint"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.checkpoint = checkpointChannel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+        this.acknowledged = checkpoint.getLong(0);
+        recover();
+    }
+
+    /**
+     * Scans the segments from the oldest, positions the reader after the checkpoint and the
+     * writer after the last complete entry. Anything after a torn or corrupt entry is dropped.
+     */
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().matches("segment-\\d+\\.log")).sorted().toList();
+        }
+        long expected = -1;
+        boolean truncated = false;
+        for (Path file : files) {
+            if (truncated) {
+                logger.warn("Discarding journal segment {} after a corrupt entry", file);
+                Files.delete(file);
+                continue;
+            }
+            String name = file.getFileName().toString();
+            Segment segment = open(Long.parseLong(name.substring(8, name.length() - 4)), file);
+            if (expected >= 0 && segment.firstSequence() != expected) {
+                logger.warn("Discarding journal segment {}: expected sequence {}", file, expected);
+                segment.channel().close();
+                Files.delete(file);
+                truncated = true;
+                continue;
+            }
+            segments.put(segment.firstSequence(), segment);
+            long sequence = segment.firstSequence();
+            int offset = 0;
+            while (true) {
+                if (readSegment == null && sequence > acknowledged) {
+                    readSegment = segment;
+                    readOffset = offset;
+                    readSequence = sequence;
+                }
+                int length = segment.buffer().getInt(offset);
+                if (length == NEXT_SEGMENT) {
+                    break;
+                }
+                if (!valid(segment.buffer(), offset, length, sequence)) {
+                    // the end of the journal, or a torn last entry
+                    truncated = true;
+                    for (int i = offset; i < segmentSize; i++) {
+                        segment.buffer().put(i, (byte) 0);
+                    }
+                    writeSegment = segment;
+                    writeOffset = offset;
+                    break;
+                }
+                offset += HEADER + length;
+                sequence++;
+            }
+            expected = sequence;
+        }
+        if (writeSegment == null) {
+            // empty directory, or the last segment ends with a marker
+            long first = Math.max(expected, acknowledged + 1);
+            writeSegment = open(first, directory.resolve(segmentName(first)));
+            segments.put(first, writeSegment);
+            expected = first;
+        }
+        nextSequence = expected;
+        committed = expected - 1;
+        if (readSegment == null) {
+            readSegment = writeSegment;
+            readOffset = writeOffset;
+            readSequence = nextSequence;
+        }
+        deleteAcknowledgedSegments();
+        logger.info("Opened publication journal in {}: {} entries to replay", directory, committed - acknowledged);
+    }
+
+    private boolean valid(MappedByteBuffer buffer, int offset, int length, long sequence) {
+        if (length <= 0 || offset + HEADER + length > segmentSize - MARKER || buffer.getLong(offset + 8) != sequence) {
+            return false;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(offset + HEADER, payload);
+        return buffer.getInt(offset + 4) == crc(payload);
+    }
+
+    /**
+     * Appends an entry and returns its sequence. The entry is visible to the reader when this returns.
+     *
+     * @throws IllegalStateException if the journal is closed
+     */
+    public long append(byte[] payload) throws IOException {
+        if (HEADER + payload.length > segmentSize - MARKER) {
+            throw new IllegalArgumentException("Entry of " + payload.length + " bytes exceeds the journal segment size");
+        }
+        int crc = crc(payload);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Publication journal is closed");
+            }
+            if (writeOffset + HEADER + payload.length > segmentSize - MARKER) {
+                roll();
+            }
+            long sequence = nextSequence++;
+            MappedByteBuffer buffer = writeSegment.buffer();
+            buffer.putInt(writeOffset + 4, crc);
+            buffer.putLong(writeOffset + 8, sequence);
+            buffer.putLong(writeOffset + 16, now);
+            buffer.put(writeOffset + HEADER, payload);
+            buffer.putInt(writeOffset, payload.length);
+            if (fsync) {
+                buffer.force(writeOffset, HEADER + payload.length);
+            }
+            writeOffset += HEADER + payload.length;
+            committed = sequence;
+            return sequence;
+        }
+    }
+
+    /** Guarded by this */
+    private void roll() throws IOException {
+        writeSegment.buffer().putInt(writeOffset, NEXT_SEGMENT);
+        if (fsync) {
+            writeSegment.buffer().force(writeOffset, MARKER);
+        }
+        Segment next = open(nextSequence, directory.resolve(segmentName(nextSequence)));
+        segments.put(next.firstSequence(), next);
+        writeSegment = next;
+        writeOffset = 0;
+    }
+
+    /**
+     * Returns up to {@code max} entries following the ones returned before, without waiting.
+     */
+    public List<Entry> read(int max) {
+        List<Entry> entries = new ArrayList<>(Math.min(max, 1024));
+        long last = committed;
+        while (entries.size() < max && readSequence <= last) {
+            MappedByteBuffer buffer = readSegment.buffer();
+            int length = buffer.getInt(readOffset);
+            if (length == NEXT_SEGMENT) {
+                readSegment = segments.higherEntry(readSegment.firstSequence()).getValue();
+                readOffset = 0;
+                continue;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(readOffset + HEADER, payload);
+            entries.add(new Entry(readSequence, buffer.getLong(readOffset + 16), payload));
+            readOffset += HEADER + length;
+            readSequence++;
+        }
+        return entries;
+    }
+
+    /**
+     * Records that all entries up to {@code sequence} are done and deletes segments holding only such entries.
+     */
+    public void acknowledge(long sequence) throws IOException {
+        checkpoint.putLong(0, sequence);
+        if (fsync) {
+            checkpoint.force();
+        }
+        acknowledged = sequence;
+        deleteAcknowledgedSegments();
+    }
+
+    private void deleteAcknowledgedSegments() throws IOException {
+        while (true) {
+            Map.Entry<Long, Segment> oldest = segments.firstEntry();
+            Map.Entry<Long, Segment> next = segments.higherEntry(oldest.getKey());
+            if (next == null || next.getKey() > acknowledged + 1 || oldest.getValue() == readSegment) {
+                return;
+            }
+            segments.remove(oldest.getKey());
+            oldest.getValue().channel().close();
+            Files.deleteIfExists(oldest.getValue().path());
+        }
+    }
+
+    /** Entries appended but not acknowledged yet */
+    public long backlog() {
+        return committed - acknowledged;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    private Segment open(long firstSequence, Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(firstSequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+    }
+
+    private static String segmentName(long firstSequence) {
+        return String.format("segment-%020d.log", firstSequence);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Segment segment : segments.values()) {
+            segment.buffer().force();
+            segment.channel().close();
+        }
+        checkpoint.force();
+        checkpointChannel.close();
+    }
+}
@@ -0,0 +1,301 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.tasklist.tasklist_wrapper.config.OutboxProperties;
+import com.utility.tasklist.tasklist_wrapper.dto.publicationMessageRequest;
+import com.utility.tasklist.tasklist_wrapper.service.BulkheadFullException.Reason;
+
+import io.camunda.zeebe.client.api.command.ClientStatusException;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Opt-in durable outbox for message publication.
+ * Accepted messages are appended to a {@link PublicationJournal} and acknowledged right away;
+ * a drainer thread publishes them in batches through {@link CamundaTaskService}, retrying
+ * transient failures with exponential backoff until Camunda takes them. The checkpoint only
+ * moves once a whole batch is done, so after a crash the unfinished batch is published again.
+ * <p>
+ * Every message gets a messageId (the caller's, or a generated one) so that Camunda rejects
+ * such replays as duplicates, which count as delivered. Camunda only detects duplicates while
+ * the first message is buffered, i.e. within its timeToLive.
+ * <p>
+ * If a batch fails as a whole (the journal cannot be acknowledged, or the publication fails in
+ * an unexpected way) the drainer keeps the batch and tries it again, backing off like a failed
+ * publication; {@code wrapper.outbox.drainer.failures} counts the consecutive failed attempts,
+ * so anything above 0 means nothing is being published.
+ * <p>
+ * Metrics: {@code wrapper.outbox.append} (timer), {@code wrapper.outbox.delivery} (append to
+ * publication), {@code wrapper.outbox.backlog} (gauge), {@code wrapper.outbox.drainer.failures}
+ * (gauge) and {@code wrapper.outbox.messages} (counter, tag outcome: published, duplicate,
+ * dropped, retried).
+ */
+@Component
+public class PublicationOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicationOutbox.class);
+
+    private final OutboxProperties properties;
+    private final CamundaTaskService camundaTaskService;
+    private final ObjectMapper objectMapper;
+    private final PublicationJournal journal;
+
+    private final Timer appendTimer = Timer.builder("wrapper.outbox.append")
+            .description("Appending a message to the outbox journal")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+    private final Timer deliveryTimer = Timer.builder("wrapper.outbox.delivery")
+            .description("Time from accepting a message to its publication")
+            .publishPercentileHistogram()
+            .register(Metrics.globalRegistry);
+    private final Counter published = messages("published");
+    private final Counter duplicates = messages("duplicate");
+    private final Counter dropped = messages("dropped");
+    private final Counter retried = messages("retried");
+
+    /** Batches the drainer failed in a row; 0 while it is healthy */
+    private final AtomicInteger drainerFailures = new AtomicInteger();
+
+    private volatile boolean accepting = true;
+    private volatile boolean running;
+    private volatile Thread drainer;
+
+    public PublicationOutbox(OutboxProperties properties, CamundaTaskService camundaTaskService, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.camundaTaskService = camundaTaskService;
+        this.objectMapper = objectMapper;
+        if (!properties.isEnabled()) {
+            this.journal = null;
+            return;
+        }
+        try {
+            this.journal = new PublicationJournal(Path.of(properties.getDirectory()),
+                    (int) properties.getSegmentSize().toBytes(), properties.isFsync());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open the publication outbox in " + properties.getDirectory(), ex);
+        }
+        Gauge.builder("wrapper.outbox.backlog", journal, PublicationJournal::backlog)
+                .description("Messages accepted but not published yet")
+                .register(Metrics.globalRegistry);
+        Gauge.builder("wrapper.outbox.drainer.failures", drainerFailures, AtomicInteger::get)
+                .description("Consecutive failed attempts of the outbox drainer; 0 while it publishes")
+                .register(Metrics.globalRegistry);
+    }
+
+    private static Counter messages(String outcome) {
+        return Counter.builder("wrapper.outbox.messages")
+                .tag("outcome", outcome)
+                .register(Metrics.globalRegistry);
+    }
+
+    public boolean isEnabled() {
+        return journal != null;
+    }
+
+    /**
+     * Appends the message to the journal; completes once it is stored, before it is published.
+     * Rejected with 503 once the outbox is stopping.
+     *
+     * @return the messageId and journal sequence of the accepted message
+     */
+    public Mono<Map<String, Object>> append(publicationMessageRequest request) {
+        return Mono.fromCallable(() -> {
+            if (!accepting) {
+                throw new BulkheadFullException("outbox", Reason.CLOSED, "Publication outbox is shutting down");
+            }
+            if (journal.segmentCount() > properties.getMaxSegments()) {
+                throw new BulkheadFullException("outbox", Reason.QUEUE_FULL,
+                        "Publication outbox is full (" + journal.backlog() + " messages pending)");
+            }
+            if (request.getMessageId() == null) {
+                request.setMessageId(UUID.randomUUID().toString());
+            }
+            if (request.getTimeToLive() == null) {
+                request.setTimeToLive(0L);
+            }
+            byte[] payload = objectMapper.writeValueAsBytes(request);
+            long start = System.nanoTime();
+            long sequence = journal.append(payload);
+            appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            LockSupport.unpark(drainer);
+
+            Map<String, Object> accepted = new LinkedHashMap<>();
+            accepted.put("messageId", request.getMessageId());
+            accepted.put("sequence", sequence);
+            return accepted;
+        });
+    }
+
+    /**
+     * Publishes through the outbox when it is enabled, directly otherwise.
+     *
+     * @return {messageId, sequence} once stored in the outbox, or Camunda's answer
+     */
+    public Mono<Object> publish(publicationMessageRequest request) {
+        return isEnabled() ? append(request).cast(Object.class) : camundaTaskService.publicationMessage(request);
+    }
+
+    /**
+     * Starts draining once the application is ready, beginning with the entries left
+     * unacknowledged by the previous run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        drainer = Thread.ofPlatform().name("publication-outbox-drainer").daemon().start(this::drain);
+    }
+
+    private void drain() {
+        List<PublicationJournal.Entry> batch = List.of();
+        while (running) {
+            if (batch.isEmpty()) {
+                batch = journal.read(properties.getBatchSize());
+                if (batch.isEmpty()) {
+                    LockSupport.parkNanos(properties.getPollInterval().toNanos());
+                    continue;
+                }
+            }
+            try {
+                Flux.fromIterable(batch)
+                        .flatMap(this::publish, properties.getBatchSize())
+                        .then()
+                        .block();
+                journal.acknowledge(batch.get(batch.size() - 1).sequence());
+                batch = List.of();
+                drainerFailures.set(0);
+            } catch (Exception ex) {
+                if (!running) {
+                    // the batch stays unacknowledged and is published again after a restart
+                    return;
+                }
+                // keep the batch: messages already published come back as duplicates
+                Duration delay = failureDelay(drainerFailures.incrementAndGet());
+                logger.error("Publication outbox drainer failed, retrying the batch in {}: {}", delay, ex.getMessage(), ex);
+                // appends unpark the drainer, so wait out the whole delay unless stopping
+                long deadline = System.nanoTime() + delay.toNanos();
+                while (running && System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(deadline - System.nanoTime());
+                }
+            }
+        }
+    }
+
+    /** Backs off like a failed publication: doubling from {@code initialBackoff} up to {@code maxBackoff} */
+    private Duration failureDelay(int failures) {
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << Math.min(failures - 1, 20));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    private Mono<Void> publish(PublicationJournal.Entry entry) {
+        publicationMessageRequest request;
+        try {
+            request = objectMapper.readValue(entry.payload(), publicationMessageRequest.class);
+        } catch (IOException ex) {
+            logger.error("Dropping unreadable outbox entry {}: {}", entry.sequence(), ex.getMessage());
+            dropped.increment();
+            return Mono.empty();
+        }
+        return camundaTaskService.publicationMessage(request)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getInitialBackoff())
+                        .maxBackoff(properties.getMaxBackoff())
+                        .filter(ex -> running && !isDuplicate(ex) && !isPermanent(ex))
+                        .doBeforeRetry(signal -> retried.increment()))
+                .doOnSuccess(body -> {
+                    published.increment();
+                    deliveryTimer.record(System.currentTimeMillis() - entry.appendedAt(), TimeUnit.MILLISECONDS);
+                })
+                .onErrorResume(ex -> {
+                    if (isDuplicate(ex)) {
+                        duplicates.increment();
+                    } else if (isPermanent(ex)) {
+                        logger.error("Dropping outbox message {} (messageId {}): {}", entry.sequence(), request.getMessageId(), ex.getMessage());
+                        dropped.increment();
+                    } else {
+                        return Mono.error(ex);
+                    }
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /** Camunda already has a message with this messageId, typically a replay after a crash */
+    private static boolean isDuplicate(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof WebClientResponseException wex && wex.getStatusCode().value() == 409) {
+                return true;
+            }
+            if (cause instanceof ClientStatusException cex && cex.getStatusCode() == Status.Code.ALREADY_EXISTS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Camunda rejected the message itself; publishing it again cannot succeed */
+    private static boolean isPermanent(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof WebClientResponseException wex) {
+                int status = wex.getStatusCode().value();
+                return status >= 400 && status < 500 && status != 408 && status != 429 && status != 401;
+            }
+            if (cause instanceof ClientStatusException cex) {
+                return switch (cex.getStatusCode()) {
+                    case INVALID_ARGUMENT, NOT_FOUND, FAILED_PRECONDITION -> true;
+                    default -> false;
+                };
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stops the drainer on context close, while the clients are still open. New messages are
+     * rejected first, so that no append races the journal being closed. The batch in flight
+     * gets {@code shutdown-timeout} to finish; whatever is left is published after the restart.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void stop() throws IOException, InterruptedException {
+        if (!isEnabled()) {
+            return;
+        }
+        accepting = false;
+        running = false;
+        if (drainer != null) {
+            LockSupport.unpark(drainer);
+            drainer.join(properties.getShutdownTimeout().toMillis());
+            drainer.interrupt();
+            drainer.join();
+        }
+        journal.close();
+        logger.info("Publication outbox closed with {} messages pending", journal.backlog());
+    }
+}
@@ -0,0 +1,109 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.utility.tasklist.tasklist_wrapper.config.UrlConfig;
+import com.utility.tasklist.tasklist_wrapper.dto.CorrelateMessageRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.StartProcessInstanceRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.UpdateElementInstanceVariablesRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.publicationMessageRequest;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Transport over the orchestration REST API on :8088.
+ */
+@Component
+public class RestCamundaTransport implements CamundaTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestCamundaTransport.class);
+
+    private final WebClient orchestrationClient;
+
+    public RestCamundaTransport(@Qualifier("orchestrationWebClient") WebClient orchestrationClient) {
+        this.orchestrationClient = orchestrationClient;
+    }
+
+    @Override
+    public String name() {
+        return "rest";
+    }
+
+    /**
+     * POST http://localhost:8088/v2/messages/publication
+     */
+    @Override
+    public Mono<Object> publishMessage(publicationMessageRequest request) {
+        logger.debug("Publishing message via Camunda API at {}", UrlConfig.ZEEBEE_MESSAGE_PUBLISH_BASE_URL);
+        return orchestrationClient.post()
+                .uri(UrlConfig.ZEEBEE_MESSAGE_PUBLISH_BASE_URL)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(Object.class);
+    }
+
+    /**
+     * POST http://localhost:8088/v2/messages/correlation
+     * Only this transport can correlate, so correlations always come here.
+     */
+    public Mono<Object> correlateMessage(CorrelateMessageRequest request) {
+        logger.debug("Correlating message via Camunda API at {}", UrlConfig.ZEEBEE_MESSAGE_API_BASE_URL);
+        return orchestrationClient.post()
+                .uri(UrlConfig.ZEEBEE_MESSAGE_API_BASE_URL)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(Object.class);
+    }
+
+    /**
+     * POST http://localhost:8088/v2/process-instances
+     */
+    @Override
+    public Mono<Object> startProcess(StartProcessInstanceRequest request) {
+        logger.debug("Starting process via Camunda API at {}", UrlConfig.ZEEBEE_PROCESS_API_BASE_URL);
+        return orchestrationClient.post()
+                .uri(UrlConfig.ZEEBEE_PROCESS_API_BASE_URL)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(Object.class);
+    }
+
+    /**
+     * POST http://localhost:8088/v2/process-instances/{processInstanceKey}/cancellation
+     */
+    @Override
+    public Mono<Object> cancelProcessInstance(String processInstanceKey) {
+        String url = String.format(UrlConfig.ZEEBEE_PROCESS_CANCELLATION_URL, processInstanceKey);
+        logger.debug("Cancelling process instance via Camunda API at {}", url);
+        return orchestrationClient.post()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(Object.class);
+    }
+
+    @Override
+    public Mono<Void> setVariables(String scopeKey, Map<String, Object> variables, boolean local) {
+        return setVariables(scopeKey, new UpdateElementInstanceVariablesRequest(variables, local, null));
+    }
+
+    /**
+     * PUT http://localhost:8088/v2/element-instances/{elementInstanceKey}/variables
+     * Only this transport carries an operationReference, so such requests always come here.
+     */
+    public Mono<Void> setVariables(String scopeKey, UpdateElementInstanceVariablesRequest request) {
+        String url = String.format(UrlConfig.ZEEBEE_ELEMENT_INSTANCE_VARIABLES_URL, scopeKey);
+        logger.debug("Updating variables for element instance via Camunda API at {}", url);
+        return orchestrationClient.put()
+                .uri(url)
+                .bodyValue(request)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+}
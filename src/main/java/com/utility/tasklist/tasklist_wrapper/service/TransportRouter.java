@@ -0,0 +1,222 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.utility.tasklist.tasklist_wrapper.config.TransportProperties;
+import com.utility.tasklist.tasklist_wrapper.config.TransportProperties.Policy;
+import com.utility.tasklist.tasklist_wrapper.service.CamundaTransport.Operation;
+
+import io.camunda.zeebe.client.api.command.ClientStatusException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Picks the transport for each broker operation according to {@code wrapper.transport.policy}.
+ * <p>
+ * Under the adaptive policy every (transport, operation) pair keeps an exponentially weighted
+ * moving average of its latency; calls go to the faster healthy transport, and a small share
+ * still goes to the other one so that its average follows changes. A transport that fails
+ * {@code failure-threshold} times in a row (5xx, gRPC UNAVAILABLE and the like, connection
+ * errors, timeouts) is set aside for the cool-down. Business errors such as a 404 or an
+ * INVALID_ARGUMENT count as answers, not as failures.
+ * <p>
+ * Every call is recorded in the {@code wrapper.transport.latency} timer, tagged with transport,
+ * operation and outcome.
+ */
+@Component
+public class TransportRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransportRouter.class);
+
+    private final CamundaTransport rest;
+    private final CamundaTransport grpc;
+    private final TransportProperties properties;
+    /** Nanosecond clock, System.nanoTime outside tests */
+    private final LongSupplier clock;
+    /** Draws in [0, 1) deciding whether a call probes the slower transport */
+    private final DoubleSupplier probeDraw;
+    private final Map<Route, Stats> stats = new ConcurrentHashMap<>();
+
+    private record Route(String transport, Operation operation) {
+    }
+
+    /** Latency and health of one transport for one operation */
+    private final class Stats {
+        final Route route;
+        final Timer succeeded;
+        final Timer failed;
+        /** Guarded by this; NaN until the first answer */
+        double averageNanos = Double.NaN;
+        int consecutiveFailures;
+        volatile long setAsideUntil;
+
+        Stats(Route route) {
+            this.route = route;
+            this.succeeded = timer(route, "success");
+            this.failed = timer(route, "failure");
+        }
+
+        synchronized double average() {
+            return averageNanos;
+        }
+
+        synchronized void answered(long nanos) {
+            consecutiveFailures = 0;
+            double smoothing = properties.getAdaptive().getSmoothing();
+            averageNanos = Double.isNaN(averageNanos) ? nanos : averageNanos + smoothing * (nanos - averageNanos);
+        }
+
+        synchronized void failedTransport() {
+            if (++consecutiveFailures >= properties.getAdaptive().getFailureThreshold()) {
+                consecutiveFailures = 0;
+                setAsideUntil = clock.getAsLong() + properties.getAdaptive().getCooldown().toNanos();
+                logger.warn("Transport {} set aside for {} after repeated failures on {}",
+                        route.transport(), properties.getAdaptive().getCooldown(), route.operation().tag());
+            }
+        }
+
+        boolean healthy(long now) {
+            return now - setAsideUntil >= 0;
+        }
+    }
+
+    @Autowired
+    public TransportRouter(RestCamundaTransport rest, GrpcCamundaTransport grpc, TransportProperties properties) {
+        this(rest, grpc, properties, System::nanoTime, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    TransportRouter(CamundaTransport rest, CamundaTransport grpc, TransportProperties properties,
+                    LongSupplier clock, DoubleSupplier probeDraw) {
+        this.rest = rest;
+        this.grpc = grpc;
+        this.properties = properties;
+        this.clock = clock;
+        this.probeDraw = probeDraw;
+    }
+
+    /**
+     * Runs the call on the transport chosen for the operation and records its latency.
+     */
+    public <T> Mono<T> route(Operation operation, Function<CamundaTransport, Mono<T>> call) {
+        return Mono.defer(() -> {
+            CamundaTransport transport = select(operation);
+            Stats route = stats(transport, operation);
+            long start = clock.getAsLong();
+            return call.apply(transport)
+                    .doOnSuccess(result -> {
+                        long elapsed = clock.getAsLong() - start;
+                        route.succeeded.record(elapsed, TimeUnit.NANOSECONDS);
+                        route.answered(elapsed);
+                    })
+                    .doOnError(ex -> {
+                        long elapsed = clock.getAsLong() - start;
+                        route.failed.record(elapsed, TimeUnit.NANOSECONDS);
+                        if (isTransportFailure(ex)) {
+                            route.failedTransport();
+                        } else {
+                            route.answered(elapsed);
+                        }
+                    });
+        });
+    }
+
+    private CamundaTransport select(Operation operation) {
+        switch (policy(operation)) {
+            case GRPC:
+                return grpc;
+            case REST:
+                return rest;
+            default:
+                return adaptive(operation);
+        }
+    }
+
+    private CamundaTransport adaptive(Operation operation) {
+        long now = clock.getAsLong();
+        List<CamundaTransport> candidates = new ArrayList<>(2);
+        for (CamundaTransport transport : List.<CamundaTransport>of(grpc, rest)) {
+            if (stats(transport, operation).healthy(now)) {
+                candidates.add(transport);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // everything is set aside; keep trying rather than failing without a call
+            return grpc;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        CamundaTransport first = candidates.get(0);
+        CamundaTransport second = candidates.get(1);
+        double firstAverage = stats(first, operation).average();
+        double secondAverage = stats(second, operation).average();
+        // a transport without measurements yet is tried first
+        if (Double.isNaN(firstAverage) || Double.isNaN(secondAverage)) {
+            return Double.isNaN(firstAverage) ? first : second;
+        }
+        CamundaTransport faster = firstAverage <= secondAverage ? first : second;
+        CamundaTransport slower = faster == first ? second : first;
+        return probeDraw.getAsDouble() < properties.getAdaptive().getProbeRatio() ? slower : faster;
+    }
+
+    private Policy policy(Operation operation) {
+        Policy configured = properties.getPolicy().get(operation.tag());
+        if (configured != null) {
+            return configured;
+        }
+        // variable updates historically went through the Zeebe client, everything else over REST
+        return operation == Operation.SET_VARIABLES ? Policy.GRPC : Policy.REST;
+    }
+
+    private Stats stats(CamundaTransport transport, Operation operation) {
+        return stats.computeIfAbsent(new Route(transport.name(), operation), Stats::new);
+    }
+
+    private static Timer timer(Route route, String outcome) {
+        return Timer.builder("wrapper.transport.latency")
+                .description("Broker calls per transport and operation")
+                .tag("transport", route.transport())
+                .tag("operation", route.operation().tag())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * True when the error says the transport itself is in trouble, rather than the broker
+     * rejecting the request.
+     */
+    static boolean isTransportFailure(Throwable ex) {
+        if (ex instanceof WebClientResponseException wex) {
+            return wex.getStatusCode().is5xxServerError();
+        }
+        if (ex instanceof ClientStatusException cex) {
+            return switch (cex.getStatusCode()) {
+                case UNAVAILABLE, DEADLINE_EXCEEDED, RESOURCE_EXHAUSTED, INTERNAL, UNKNOWN -> true;
+                default -> false;
+            };
+        }
+        return ex instanceof WebClientRequestException
+                || ex instanceof TimeoutException
+                || ex instanceof IOException
+                || (ex.getCause() != null && ex.getCause() != ex && isTransportFailure(ex.getCause()));
+    }
+}
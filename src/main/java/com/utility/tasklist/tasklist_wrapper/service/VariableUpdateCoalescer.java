@@ -0,0 +1,169 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Opt-in write-behind coalescing of variable updates.
+ * Updates for the same scope (key and local flag) arriving within a short window are merged
+ * into one command, the last write winning per variable name. A batch is sent when its window
+ * ends, or as soon as it holds {@code max-updates} updates. Every caller of a merged batch
+ * completes (or fails) with that one command. Pending batches are flushed on shutdown; updates
+ * submitted after that, while the server drains its last requests, are sent on their own.
+ * <p>
+ * {@code wrapper.variables.coalescing.requests} counts accepted updates and
+ * {@code wrapper.variables.coalescing.commands} the commands actually sent; their ratio is the
+ * reduction achieved.
+ */
+@Component
+public class VariableUpdateCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(VariableUpdateCoalescer.class);
+
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxUpdates;
+    private final Duration shutdownTimeout;
+
+    private final Map<Scope, Batch> pending = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "variable-update-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter requests = Metrics.counter("wrapper.variables.coalescing.requests");
+    private final Counter commands = Metrics.counter("wrapper.variables.coalescing.commands");
+
+    /** Variables are set on an element or process instance key, so the key alone names the scope */
+    private record Scope(String key, boolean local) {
+    }
+
+    /** Updates merged so far for one scope; only mutated under the map's lock for that scope */
+    private static final class Batch {
+        final Map<String, Object> variables = new LinkedHashMap<>();
+        final Function<Map<String, Object>, Mono<Void>> sender;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        int updates;
+
+        Batch(Function<Map<String, Object>, Mono<Void>> sender) {
+            this.sender = sender;
+        }
+    }
+
+    public VariableUpdateCoalescer(
+            @Value("${wrapper.variables.coalescing.enabled:false}") boolean enabled,
+            @Value("${wrapper.variables.coalescing.window:20ms}") Duration window,
+            @Value("${wrapper.variables.coalescing.max-updates:100}") int maxUpdates,
+            @Value("${wrapper.variables.coalescing.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.enabled = enabled;
+        this.window = window;
+        this.maxUpdates = maxUpdates;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    /**
+     * Queues an update; completes when the command carrying it has been sent.
+     *
+     * @param sender sends the merged variables of the scope as a single command
+     */
+    public Mono<Void> submit(String key, boolean local, Map<String, Object> variables,
+                             Function<Map<String, Object>, Mono<Void>> sender) {
+        if (!enabled) {
+            return sender.apply(variables);
+        }
+        return Mono.defer(() -> {
+            if (closed) {
+                // pending batches are already flushed; nothing is left to merge with
+                return sender.apply(variables);
+            }
+            requests.increment();
+            Scope scope = new Scope(key, local);
+            Batch[] created = new Batch[1];
+            boolean[] full = new boolean[1];
+            Batch batch = pending.compute(scope, (s, existing) -> {
+                Batch current = existing;
+                if (current == null) {
+                    current = new Batch(sender);
+                    created[0] = current;
+                }
+                if (variables != null) {
+                    current.variables.putAll(variables);
+                }
+                full[0] = ++current.updates >= maxUpdates;
+                return current;
+            });
+            if (full[0]) {
+                // the scheduled flush finds the batch gone and does nothing
+                flush(scope, batch);
+            } else if (created[0] != null) {
+                try {
+                    flusher.schedule(() -> flush(scope, batch), window.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException ex) {
+                    // raced with flushAll, which may not see this batch any more
+                    flush(scope, batch);
+                }
+            }
+            return Mono.fromFuture(batch.done, true);
+        });
+    }
+
+    private void flush(Scope scope, Batch batch) {
+        // after removal no submit can reach this batch any more, so its variables are final
+        if (!pending.remove(scope, batch)) {
+            return;
+        }
+        commands.increment();
+        Mono.defer(() -> batch.sender.apply(batch.variables))
+                .subscribe(null, batch.done::completeExceptionally, () -> batch.done.complete(null));
+    }
+
+    /**
+     * Runs on context close, before any bean is destroyed, so the clients used by the
+     * senders are still open.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void flushAll() {
+        closed = true;
+        // batches created from here on cannot be scheduled and are flushed by their submitter
+        flusher.shutdownNow();
+        List<CompletableFuture<Void>> flushing = new ArrayList<>();
+        pending.forEach((scope, batch) -> {
+            flushing.add(batch.done);
+            flush(scope, batch);
+        });
+        if (flushing.isEmpty()) {
+            return;
+        }
+        logger.info("Flushing {} pending variable updates before shutdown", flushing.size());
+        try {
+            CompletableFuture.allOf(flushing.toArray(CompletableFuture[]::new))
+                    .get(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception ex) {
+            logger.warn("Not all pending variable updates were flushed before shutdown: {}", ex.getMessage());
+        }
+    }
+}
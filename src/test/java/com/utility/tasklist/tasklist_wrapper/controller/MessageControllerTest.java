@@ -0,0 +1,87 @@
+package com.utility.tasklist.tasklist_wrapper.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.utility.tasklist.tasklist_wrapper.dto.IngestOperation;
+import com.utility.tasklist.tasklist_wrapper.service.CamundaTaskService;
+import com.utility.tasklist.tasklist_wrapper.service.NdjsonReader;
+import com.utility.tasklist.tasklist_wrapper.service.PublicationOutbox;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Async timeouts with the application's configuration: single calls are cut after
+ * spring.mvc.async.request-timeout, NDJSON streams run for as long as the client keeps going.
+ */
+@WebMvcTest(MessageController.class)
+class MessageControllerTest {
+
+    /** spring.mvc.async.request-timeout in application.yaml */
+    private static final long REQUEST_TIMEOUT_MILLIS = 90_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CamundaTaskService camundaTaskService;
+
+    @MockitoBean
+    private NdjsonReader ndjsonReader;
+
+    @MockitoBean
+    private PublicationOutbox publicationOutbox;
+
+    @Test
+    void singleCallsKeepTheRequestTimeout() throws Exception {
+        when(camundaTaskService.correlateMessage(any())).thenReturn(Mono.never());
+
+        assertThat(asyncTimeout(post("/messages/correlation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"messageName\":\"order-paid\",\"correlationKey\":\"ORD1\"}")))
+                .isEqualTo(REQUEST_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    void searchStreamsHaveNoTimeout() throws Exception {
+        when(camundaTaskService.streamProcessInstances(any())).thenReturn(Flux.never());
+
+        assertThat(asyncTimeout(post("/v1/process-instances/search/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("{}")))
+                .isEqualTo(-1);
+    }
+
+    @Test
+    void ingestStreamsHaveNoTimeout() throws Exception {
+        when(ndjsonReader.read(any(), any(Class.class))).thenReturn(Flux.<Mono<IngestOperation>>never());
+        when(camundaTaskService.ingest(any())).thenReturn(Flux.never());
+
+        assertThat(asyncTimeout(post("/ingest")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("{}\n")))
+                .isEqualTo(-1);
+    }
+
+    private long asyncTimeout(MockHttpServletRequestBuilder call) throws Exception {
+        MvcResult result = mockMvc.perform(call)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getRequest().getAsyncContext().getTimeout();
+    }
+}
@@ -0,0 +1,185 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.http.HttpStatus;
+
+import com.utility.tasklist.tasklist_wrapper.config.BulkheadProperties;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Slots, the waiting queue and its limits, and the release of a slot however a call ends.
+ * One slot is used so that every second call has to wait; calls answer when the test says so.
+ * A bulkhead takes its limits when first used, so tests adjust them before their first call.
+ */
+@Timeout(10)
+class BulkheadsTest {
+
+    /** Gives each test its own bulkhead, and with it its own meters */
+    private static final AtomicInteger OPERATIONS = new AtomicInteger();
+
+    private final BulkheadProperties properties = new BulkheadProperties();
+    private Bulkheads bulkheads;
+    private String operation;
+
+    /** Names of the calls in the order they were sent upstream */
+    private final List<String> sent = new ArrayList<>();
+    /** Pending upstream answers by call name */
+    private final Map<String, Sinks.One<Object>> answers = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        properties.getDefaults().setMaxConcurrent(1);
+        properties.getDefaults().setQueueDepth(2);
+        properties.getDefaults().setQueueTimeout(Duration.ofSeconds(5));
+        bulkheads = new Bulkheads(properties);
+        operation = "test-" + OPERATIONS.incrementAndGet();
+    }
+
+    @Test
+    void rejectsCallsBeyondTheQueueWith429() {
+        limited("active").subscribe();
+        limited("queued1").subscribe();
+        limited("queued2").subscribe();
+
+        assertThatThrownBy(() -> limited("rejected").block())
+                .isInstanceOfSatisfying(BulkheadFullException.class, ex -> {
+                    assertThat(ex.getReason()).isEqualTo(BulkheadFullException.Reason.QUEUE_FULL);
+                    assertThat(ex.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                });
+        assertThat(sent).containsExactly("active");
+    }
+
+    @Test
+    void rejectsRightAwayWithoutQueue() {
+        properties.getDefaults().setQueueDepth(0);
+        limited("active").subscribe();
+
+        assertThatThrownBy(() -> limited("rejected").block()).isInstanceOf(BulkheadFullException.class);
+    }
+
+    @Test
+    void failsAWaitLongerThanTheQueueTimeoutWith503() {
+        properties.getDefaults().setQueueTimeout(Duration.ofMillis(50));
+        limited("active").subscribe();
+
+        assertThatThrownBy(() -> limited("waiting").block())
+                .isInstanceOfSatisfying(BulkheadFullException.class, ex -> {
+                    assertThat(ex.getReason()).isEqualTo(BulkheadFullException.Reason.QUEUE_TIMEOUT);
+                    assertThat(ex.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                });
+
+        // the timed-out call left the queue: the slot goes to the next call
+        limited("next").subscribe();
+        answer("active");
+        assertThat(sent).containsExactly("active", "next");
+    }
+
+    @Test
+    void handsSlotsToWaitersInArrivalOrder() {
+        properties.getDefaults().setQueueDepth(3);
+        limited("active").subscribe();
+        limited("first").subscribe();
+        limited("second").subscribe();
+        limited("third").subscribe();
+        assertThat(sent).containsExactly("active");
+
+        answer("active");
+        assertThat(sent).containsExactly("active", "first");
+        answer("first");
+        answer("second");
+        assertThat(sent).containsExactly("active", "first", "second", "third");
+    }
+
+    @Test
+    void releasesTheSlotOnError() {
+        limited("failing").subscribe(null, ex -> { });
+        limited("waiting").subscribe();
+
+        answers.get("failing").tryEmitError(new IllegalStateException("Upstream failed"));
+
+        assertThat(sent).containsExactly("failing", "waiting");
+    }
+
+    @Test
+    void releasesTheSlotOnCancel() {
+        Disposable active = limited("active").subscribe();
+        limited("waiting").subscribe();
+
+        active.dispose();
+
+        assertThat(sent).containsExactly("active", "waiting");
+    }
+
+    @Test
+    void cancelledWaiterGivesUpItsPlace() {
+        limited("active").subscribe();
+        Disposable cancelled = limited("cancelled").subscribe();
+        limited("waiting").subscribe();
+
+        cancelled.dispose();
+        answer("active");
+
+        assertThat(sent).containsExactly("active", "waiting");
+        // and the queue has room again
+        limited("another").subscribe();
+        answer("waiting");
+        assertThat(sent).containsExactly("active", "waiting", "another");
+    }
+
+    @Test
+    void streamHoldsItsSlotUntilItEnds() {
+        Sinks.Many<String> items = Sinks.many().unicast().onBackpressureBuffer();
+        bulkheads.limit(operation, Flux.defer(() -> {
+            sent.add("stream");
+            return items.asFlux();
+        })).subscribe();
+        limited("waiting").subscribe();
+
+        items.tryEmitNext("item");
+        assertThat(sent).containsExactly("stream");
+
+        items.tryEmitComplete();
+        assertThat(sent).containsExactly("stream", "waiting");
+    }
+
+    @Test
+    void disabledBulkheadsDoNotLimit() {
+        properties.setEnabled(false);
+        limited("first").subscribe();
+        limited("second").subscribe();
+        limited("third").subscribe();
+        limited("fourth").subscribe();
+
+        assertThat(sent).containsExactly("first", "second", "third", "fourth");
+    }
+
+    /** An upstream call behind the bulkhead that records when it is sent and answers when the test says so */
+    private Mono<Object> limited(String name) {
+        Sinks.One<Object> answer = Sinks.one();
+        answers.put(name, answer);
+        return bulkheads.limit(operation, Mono.defer(() -> {
+            sent.add(name);
+            return answer.asMono();
+        }));
+    }
+
+    private void answer(String name) {
+        answers.get(name).tryEmitValue(name);
+    }
+}
@@ -0,0 +1,135 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Paging of streamed searches: which pages are fetched while the client is still reading,
+ * and that a client going away stops the fetching. Pages arrive when the test answers them.
+ */
+class CamundaTaskServiceTest {
+
+    private static final int LAST_PAGE = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    /** Numbers of the pages fetched, in order */
+    private final List<Integer> fetched = new ArrayList<>();
+    private final Map<Integer, Sinks.One<JsonNode>> pages = new HashMap<>();
+
+    private final Reader reader = new Reader();
+
+    @Test
+    void fetchesTheNextPageWhileTheCurrentOneIsWritten() {
+        items().subscribe(reader);
+        answer(1, 3);
+
+        assertThat(reader.received).hasSize(1);
+        assertThat(fetched).containsExactly(1, 2);
+
+        // page 2 is held until page 1 is drained, so page 3 is not fetched yet
+        answer(2, 3);
+        assertThat(fetched).containsExactly(1, 2);
+
+        reader.request(3);
+        assertThat(reader.received).hasSize(4);
+        assertThat(fetched).containsExactly(1, 2, 3);
+
+        answer(3, 2);
+        reader.request(Long.MAX_VALUE);
+        assertThat(reader.received).extracting(item -> item.path("page").asInt() + "." + item.path("item").asInt())
+                .containsExactly("1.0", "1.1", "1.2", "2.0", "2.1", "2.2", "3.0", "3.1");
+        assertThat(reader.completed).isTrue();
+    }
+
+    @Test
+    void cancellingTheStreamCancelsThePageInFlight() {
+        items().subscribe(reader);
+        answer(1, 3);
+        assertThat(pages.get(2).currentSubscriberCount()).isEqualTo(1);
+
+        reader.cancel();
+
+        assertThat(pages.get(2).currentSubscriberCount()).isZero();
+        assertThat(fetched).containsExactly(1, 2);
+    }
+
+    @Test
+    void failsWithTheFailedPage() {
+        items().subscribe(reader);
+        answer(1, 1);
+        pages.get(2).tryEmitError(new IllegalStateException("Operate is down"));
+
+        reader.request(Long.MAX_VALUE);
+
+        assertThat(reader.received).hasSize(1);
+        assertThat(reader.error).isInstanceOf(IllegalStateException.class);
+    }
+
+    private Flux<JsonNode> items() {
+        return CamundaTaskService.pageItems(fetch(1), page -> {
+            int number = page.path("number").asInt();
+            return number < LAST_PAGE ? fetch(number + 1) : Mono.empty();
+        });
+    }
+
+    /** A page counts as fetched once it is requested, not merely subscribed to */
+    private Mono<JsonNode> fetch(int number) {
+        return Mono.defer(() -> {
+            Sinks.One<JsonNode> page = Sinks.one();
+            pages.put(number, page);
+            return page.asMono().doOnRequest(n -> fetched.add(number));
+        });
+    }
+
+    private void answer(int number, int items) {
+        ObjectNode page = objectMapper.createObjectNode().put("number", number);
+        for (int i = 0; i < items; i++) {
+            page.withArray("items").addObject().put("page", number).put("item", i);
+        }
+        pages.get(number).tryEmitValue(page);
+    }
+
+    /** A client reading one item at first, then as much as the test requests */
+    private static final class Reader extends BaseSubscriber<JsonNode> {
+
+        final List<JsonNode> received = new ArrayList<>();
+        boolean completed;
+        Throwable error;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(JsonNode item) {
+            received.add(item);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+        }
+    }
+}
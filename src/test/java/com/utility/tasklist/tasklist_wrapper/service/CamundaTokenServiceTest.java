@@ -0,0 +1,136 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.core.Disposable;
+
+/**
+ * Sharing of the in-flight refresh, serving the old token while a refresh stalls, and refreshes
+ * requested during shutdown. The token endpoint only answers when the test releases it.
+ */
+@Timeout(10)
+class CamundaTokenServiceTest {
+
+    private HttpServer identity;
+    private CamundaTokenService tokenService;
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    /** Signalled when a token request reaches the endpoint */
+    private final Semaphore requested = new Semaphore(0);
+    /** One permit per token response the endpoint may send */
+    private final Semaphore answers = new Semaphore(0);
+
+    @BeforeEach
+    void startIdentity() throws IOException {
+        identity = HttpServer.create(new InetSocketAddress("localhost", 0), 16);
+        identity.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        identity.createContext("/token", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            int fetch = fetches.incrementAndGet();
+            requested.release();
+            answers.acquireUninterruptibly();
+            byte[] body = ("{\"access_token\":\"token-" + fetch + "\",\"expires_in\":3600}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        identity.start();
+
+        tokenService = new CamundaTokenService();
+        ReflectionTestUtils.setField(tokenService, "tokenUrl", "http://localhost:" + identity.getAddress().getPort() + "/token");
+        ReflectionTestUtils.setField(tokenService, "clientId", "test");
+        ReflectionTestUtils.setField(tokenService, "clientSecret", "test");
+        ReflectionTestUtils.setField(tokenService, "refreshBefore", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(tokenService, "refreshRetryDelay", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void stop() {
+        answers.release(100);
+        tokenService.shutdown();
+        identity.stop(0);
+    }
+
+    @Test
+    void concurrentCallersShareOneFetch() throws Exception {
+        CompletableFuture<String> first = tokenService.accessToken().toFuture();
+        CompletableFuture<String> second = tokenService.accessToken().toFuture();
+        CompletableFuture<String> blocking = CompletableFuture.supplyAsync(tokenService::getAccessToken);
+        requested.acquire();
+
+        answers.release();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("token-1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("token-1");
+        assertThat(blocking.get(5, TimeUnit.SECONDS)).isEqualTo("token-1");
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void cancelledWaiterDoesNotFailTheOthers() throws Exception {
+        Disposable cancelled = tokenService.accessToken().subscribe();
+        CompletableFuture<String> waiting = tokenService.accessToken().toFuture();
+        requested.acquire();
+
+        cancelled.dispose();
+        answers.release();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("token-1");
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void servesTheOldTokenWhileARefreshStalls() throws Exception {
+        answers.release();
+        assertThat(tokenService.getAccessToken()).isEqualTo("token-1");
+
+        // the proactive refresh reaches the endpoint, which does not answer yet
+        ReflectionTestUtils.invokeMethod(tokenService, "refreshInBackground");
+        requested.acquire(2);
+
+        assertThat(tokenService.getAccessToken()).isEqualTo("token-1");
+        assertThat(tokenService.accessToken().block()).isEqualTo("token-1");
+
+        // once the refresh answers, its token replaces the old one
+        answers.release();
+        while (!"token-2".equals(tokenService.getAccessToken())) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void refreshDuringShutdownFailsInsteadOfHanging() {
+        tokenService.shutdown();
+
+        assertThatThrownBy(() -> tokenService.accessToken().block()).isInstanceOf(RejectedExecutionException.class);
+        // the failed refresh is not left in flight for the next caller
+        assertThatThrownBy(tokenService::getAccessToken).isInstanceOf(RejectedExecutionException.class);
+        assertThat(fetches).hasValue(0);
+    }
+}
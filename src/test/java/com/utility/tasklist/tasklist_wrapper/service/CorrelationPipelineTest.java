@@ -0,0 +1,128 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Ordering per correlationKey and concurrency across keys. A single lane is used so that
+ * unrelated keys share it, the case where they could hold each other back. Each pipeline gets
+ * its own registry, so that its lane meters are not already taken by an earlier test's.
+ */
+class CorrelationPipelineTest {
+
+    private final CorrelationPipeline pipeline = new CorrelationPipeline(true, 1, 32, 100, new SimpleMeterRegistry());
+
+    /** Names of the calls in the order they were sent upstream */
+    private final List<String> sent = new ArrayList<>();
+    /** Pending upstream answers by call name */
+    private final Map<String, Sinks.One<Object>> answers = new LinkedHashMap<>();
+
+    @Test
+    void sendsCorrelationsOfOneKeyOneAfterAnother() {
+        List<Object> results = new ArrayList<>();
+        pipeline.submit("ORD1", call("first")).subscribe(results::add);
+        pipeline.submit("ORD1", call("second")).subscribe(results::add);
+        pipeline.submit("ORD1", call("third")).subscribe(results::add);
+
+        assertThat(sent).containsExactly("first");
+
+        answer("first");
+        assertThat(sent).containsExactly("first", "second");
+
+        answer("second");
+        answer("third");
+        assertThat(sent).containsExactly("first", "second", "third");
+        assertThat(results).containsExactly("first", "second", "third");
+    }
+
+    @Test
+    void sendsUnrelatedKeysConcurrently() {
+        pipeline.submit("ORD1", call("a1")).subscribe();
+        pipeline.submit("ORD2", call("b1")).subscribe();
+        pipeline.submit("ORD3", call("c1")).subscribe();
+
+        assertThat(sent).containsExactly("a1", "b1", "c1");
+    }
+
+    @Test
+    void keepsOrderPerKeyWhileOtherKeysProceed() {
+        pipeline.submit("ORD1", call("a1")).subscribe();
+        pipeline.submit("ORD2", call("b1")).subscribe();
+        pipeline.submit("ORD1", call("a2")).subscribe();
+
+        assertThat(sent).containsExactly("a1", "b1");
+
+        // b1 finishing does not release a2, only a1 does
+        answer("b1");
+        assertThat(sent).containsExactly("a1", "b1");
+
+        answer("a1");
+        assertThat(sent).containsExactly("a1", "b1", "a2");
+    }
+
+    @Test
+    void continuesWithTheKeyAfterAFailure() {
+        List<Throwable> errors = new ArrayList<>();
+        pipeline.submit("ORD1", call("first")).subscribe(null, errors::add);
+        pipeline.submit("ORD1", call("second")).subscribe();
+
+        answers.get("first").tryEmitError(new IllegalStateException("rejected"));
+
+        assertThat(errors).hasSize(1);
+        assertThat(sent).containsExactly("first", "second");
+    }
+
+    @Test
+    void correlationsWithoutKeyBypassThePipeline() {
+        pipeline.submit(null, call("a")).subscribe();
+        pipeline.submit("", call("b")).subscribe();
+        pipeline.submit(null, call("c")).subscribe();
+
+        assertThat(sent).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void rejectsCorrelationsBeyondTheLaneCapacity() {
+        CorrelationPipeline small = new CorrelationPipeline(true, 1, 1, 1, new SimpleMeterRegistry());
+        small.submit("ORD1", call("sending")).subscribe();
+        small.submit("ORD1", call("queued")).subscribe();
+
+        assertThatThrownBy(() -> small.submit("ORD1", call("rejected")).block())
+                .isInstanceOf(BulkheadFullException.class);
+    }
+
+    @Test
+    void disabledPipelineSendsRightAway() {
+        CorrelationPipeline disabled = new CorrelationPipeline(false, 1, 32, 100, new SimpleMeterRegistry());
+        disabled.submit("ORD1", call("first")).subscribe();
+        disabled.submit("ORD1", call("second")).subscribe();
+
+        assertThat(sent).containsExactly("first", "second");
+    }
+
+    /** An upstream call that records when it is sent and answers when the test says so */
+    private Supplier<Mono<Object>> call(String name) {
+        Sinks.One<Object> answer = Sinks.one();
+        answers.put(name, answer);
+        return () -> Mono.defer(() -> {
+            sent.add(name);
+            return answer.asMono();
+        });
+    }
+
+    private void answer(String name) {
+        answers.get(name).tryEmitValue(name);
+    }
+}
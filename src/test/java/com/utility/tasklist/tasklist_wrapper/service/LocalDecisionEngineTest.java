@@ -0,0 +1,138 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.utility.tasklist.tasklist_wrapper.dto.EvaluateDecisionRequest;
+
+/**
+ * Conformance of the local evaluation with Zeebe's: every case of decisions/corpus.json is
+ * evaluated locally and its output compared with the output Zeebe gives for that decision and
+ * input (one column: the value, several: a map, COLLECT: a list, aggregations: the value).
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LocalDecisionEngineTest {
+
+    private static final String TENANT = "<default>";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LocalDecisionEngine engine = new LocalDecisionEngine(null, objectMapper, true, List.of());
+    private final List<String> decisionIds = new ArrayList<>();
+
+    @BeforeAll
+    void registerCorpus() throws IOException {
+        for (JsonNode entry : corpus()) {
+            String decisionId = entry.path("decisionId").asText();
+            if (!decisionIds.contains(decisionId)) {
+                decisionIds.add(decisionId);
+                engine.register(definition(decisionId), resource("decisions/" + entry.path("dmn").asText()));
+            }
+        }
+    }
+
+    Stream<Arguments> cases() throws IOException {
+        List<Arguments> cases = new ArrayList<>();
+        for (JsonNode entry : corpus()) {
+            cases.add(Arguments.of(entry.path("decisionId").asText(), entry.path("variables"), entry.path("output")));
+        }
+        return cases.stream();
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("cases")
+    void outputMatchesZeebe(String decisionId, JsonNode variables, JsonNode expected) throws IOException {
+        JsonNode response = evaluate(decisionId, variables);
+
+        assertThat(objectMapper.readTree(response.path("output").asText())).isEqualTo(expected);
+        assertThat(response.path("decisionDefinitionId").asText()).isEqualTo(decisionId);
+        assertThat(response.path("decisionDefinitionKey").asLong()).isEqualTo(key(decisionId));
+        assertThat(response.path("tenantId").asText()).isEqualTo(TENANT);
+        assertThat(response.path("failureMessage").asText()).isEmpty();
+    }
+
+    @Test
+    void unknownKeysGoToTheGateway() {
+        EvaluateDecisionRequest request = new EvaluateDecisionRequest(null, "42", null, Map.of());
+
+        assertThat(engine.evaluate(request).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void requestsByIdGoToTheGateway() {
+        EvaluateDecisionRequest request = new EvaluateDecisionRequest("discount", null, null, Map.of("customerType", "business"));
+
+        assertThat(engine.evaluate(request).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void otherTenantsGoToTheGateway() {
+        EvaluateDecisionRequest request = new EvaluateDecisionRequest(null, String.valueOf(key("discount")), "other",
+                Map.of("customerType", "business"));
+
+        assertThat(engine.evaluate(request).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void evaluationErrorsGoToTheGateway() {
+        // a string where the table compares numbers
+        EvaluateDecisionRequest request = new EvaluateDecisionRequest(null, String.valueOf(key("shipping")), null,
+                Map.of("weight", "heavy"));
+
+        assertThat(engine.evaluate(request).blockOptional()).isEmpty();
+    }
+
+    private JsonNode evaluate(String decisionId, JsonNode variables) {
+        Map<String, Object> input = objectMapper.convertValue(variables, new TypeReference<Map<String, Object>>() {});
+        Object response = engine.evaluate(new EvaluateDecisionRequest(null, String.valueOf(key(decisionId)), null, input))
+                .blockOptional()
+                .orElseThrow(() -> new AssertionError(decisionId + " was not evaluated locally"));
+        return objectMapper.valueToTree(response);
+    }
+
+    /** The decision definition as Operate returns it */
+    private ObjectNode definition(String decisionId) {
+        ObjectNode definition = objectMapper.createObjectNode();
+        definition.put("key", key(decisionId));
+        definition.put("decisionId", decisionId);
+        definition.put("name", decisionId);
+        definition.put("version", 1);
+        definition.put("decisionRequirementsId", decisionId + "-drg");
+        definition.put("decisionRequirementsKey", key(decisionId) + 1);
+        definition.put("tenantId", TENANT);
+        return definition;
+    }
+
+    private long key(String decisionId) {
+        return 2251799813685000L + 10L * decisionIds.indexOf(decisionId);
+    }
+
+    private JsonNode corpus() throws IOException {
+        return objectMapper.readTree(resource("decisions/corpus.json"));
+    }
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream in = LocalDecisionEngineTest.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Missing test resource " + name);
+            }
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Appending, reading and acknowledging, and recovery of the journal after a restart or a crash:
+ * replay of unacknowledged entries, torn and partial tail entries, and rolled segments.
+ */
+class PublicationJournalTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    /** Entry header: length, crc, sequence, appendedAt */
+    private static final int HEADER = 24;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsEntriesInAppendOrder() throws IOException {
+        try (PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false)) {
+            long first = journal.append(payload("a"));
+            journal.append(payload("b"));
+            journal.append(payload("c"));
+
+            assertThat(payloads(journal.read(2))).containsExactly("a", "b");
+            assertThat(payloads(journal.read(10))).containsExactly("c");
+            assertThat(journal.read(10)).isEmpty();
+            assertThat(journal.backlog()).isEqualTo(3);
+
+            journal.acknowledge(first + 2);
+            assertThat(journal.backlog()).isZero();
+        }
+    }
+
+    @Test
+    void replaysUnacknowledgedEntriesAfterReopen() throws IOException {
+        long acknowledged;
+        try (PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false)) {
+            for (String value : List.of("a", "b", "c", "d", "e")) {
+                journal.append(payload(value));
+            }
+            List<PublicationJournal.Entry> entries = journal.read(10);
+            acknowledged = entries.get(1).sequence();
+            journal.acknowledge(acknowledged);
+        }
+
+        try (PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false)) {
+            List<PublicationJournal.Entry> replayed = journal.read(10);
+            assertThat(payloads(replayed)).containsExactly("c", "d", "e");
+            assertThat(replayed.get(0).sequence()).isEqualTo(acknowledged + 1);
+            assertThat(journal.backlog()).isEqualTo(3);
+            // sequences carry on after the replayed entries
+            assertThat(journal.append(payload("f"))).isEqualTo(acknowledged + 4);
+        }
+    }
+
+    @Test
+    void fullyAcknowledgedJournalReplaysNothing() throws IOException {
+        try (PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false)) {
+            journal.append(payload("a"));
+            journal.acknowledge(journal.read(10).get(0).sequence());
+        }
+
+        try (PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false)) {
+            assertThat(journal.read(10)).isEmpty();
+            assertThat(journal.backlog()).isZero();
+        }
+    }
+
+    @Test
+    void dropsACorruptTailEntry() throws IOException {
+        long third;
+        try (PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false)) {
+            journal.append(payload("a"));
+            journal.append(payload("b"));
+            third = journal.append(payload("c"));
+        }
+        // a torn write: the payload of the last entry differs from its checksum
+        int offset = 2 * (HEADER + 1);
+        writeAt(onlySegment(), offset + HEADER, new byte[] {'x'});
+
+        try (PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false)) {
+            assertThat(payloads(journal.read(10))).containsExactly("a", "b");
+            assertThat(journal.append(payload("d"))).isEqualTo(third);
+            assertThat(payloads(journal.read(10))).containsExactly("d");
+        }
+    }
+
+    @Test
+    void dropsAPartiallyWrittenTailEntry() throws IOException {
+        try (PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false)) {
+            journal.append(payload("a"));
+            journal.append(payload("b"));
+        }
+        // a crash after the length of a third entry reached the file, but nothing else
+        int offset = 2 * (HEADER + 1);
+        writeAt(onlySegment(), offset, ByteBuffer.allocate(Integer.BYTES).putInt(100).array());
+
+        try (PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false)) {
+            assertThat(payloads(journal.read(10))).containsExactly("a", "b");
+            journal.append(payload("c"));
+            assertThat(payloads(journal.read(10))).containsExactly("c");
+        }
+
+        // the rewritten tail survives another restart
+        try (PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false)) {
+            assertThat(payloads(journal.read(10))).containsExactly("a", "b", "c");
+        }
+    }
+
+    @Test
+    void readsAcrossRolledSegmentsAndDeletesAcknowledgedOnes() throws IOException {
+        // two 100-byte entries fit in a segment
+        int segmentSize = 2 * (HEADER + 100) + 4;
+        try (PublicationJournal journal = new PublicationJournal(directory, segmentSize, false)) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(new byte[100]);
+            }
+            assertThat(journal.segmentCount()).isEqualTo(3);
+
+            List<PublicationJournal.Entry> entries = journal.read(10);
+            assertThat(entries).hasSize(6);
+            assertThat(entries).extracting(PublicationJournal.Entry::sequence)
+                    .isSorted()
+                    .doesNotHaveDuplicates();
+
+            // the first two segments hold only acknowledged entries
+            journal.acknowledge(entries.get(3).sequence());
+            assertThat(journal.segmentCount()).isEqualTo(1);
+            assertThat(segmentFiles()).hasSize(1);
+        }
+    }
+
+    @Test
+    void replaysAcrossRolledSegmentsAfterReopen() throws IOException {
+        int segmentSize = 2 * (HEADER + 100) + 4;
+        long acknowledged;
+        try (PublicationJournal journal = new PublicationJournal(directory, segmentSize, false)) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(filled(i));
+            }
+            List<PublicationJournal.Entry> entries = journal.read(10);
+            // the middle of the second segment
+            acknowledged = entries.get(2).sequence();
+            journal.acknowledge(acknowledged);
+        }
+
+        try (PublicationJournal journal = new PublicationJournal(directory, segmentSize, false)) {
+            List<PublicationJournal.Entry> replayed = journal.read(10);
+            assertThat(replayed).extracting(entry -> (int) entry.payload()[0]).containsExactly(3, 4, 5);
+            assertThat(replayed.get(0).sequence()).isEqualTo(acknowledged + 1);
+            assertThat(journal.segmentCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void rejectsEntriesLargerThanASegment() throws IOException {
+        try (PublicationJournal journal = new PublicationJournal(directory, 256, false)) {
+            assertThatThrownBy(() -> journal.append(new byte[256])).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void rejectsAppendsAfterClose() throws IOException {
+        PublicationJournal journal = new PublicationJournal(directory, SEGMENT_SIZE, false);
+        journal.append(payload("a"));
+        journal.close();
+
+        assertThatThrownBy(() -> journal.append(payload("b"))).isInstanceOf(IllegalStateException.class);
+        // closing again is harmless
+        journal.close();
+    }
+
+    private static byte[] payload(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] filled(int value) {
+        byte[] payload = new byte[100];
+        payload[0] = (byte) value;
+        return payload;
+    }
+
+    private static List<String> payloads(List<PublicationJournal.Entry> entries) {
+        return entries.stream().map(entry -> new String(entry.payload(), StandardCharsets.UTF_8)).toList();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        List<Path> files = segmentFiles();
+        assertThat(files).hasSize(1);
+        return files.get(0);
+    }
+
+    private static void writeAt(Path file, int offset, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), offset);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.utility.tasklist.tasklist_wrapper.config.TransportProperties;
+import com.utility.tasklist.tasklist_wrapper.config.TransportProperties.Policy;
+import com.utility.tasklist.tasklist_wrapper.dto.StartProcessInstanceRequest;
+import com.utility.tasklist.tasklist_wrapper.dto.publicationMessageRequest;
+import com.utility.tasklist.tasklist_wrapper.service.CamundaTransport.Operation;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Transport choice per policy, and the adaptive policy's moving averages, probes and setting
+ * aside of failing transports. Time only passes when a stub transport answers, and the probe
+ * draw is set by each test, so every choice is deterministic.
+ */
+class TransportRouterTest {
+
+    private final TransportProperties properties = new TransportProperties();
+    private final StubTransport rest = new StubTransport("rest");
+    private final StubTransport grpc = new StubTransport("grpc");
+    /** Transports called, in order */
+    private final List<String> called = new ArrayList<>();
+
+    private long now = TimeUnit.SECONDS.toNanos(1);
+    /** Above the probe ratio: calls go to the faster transport */
+    private double probeDraw = 0.5;
+
+    private TransportRouter router;
+
+    @BeforeEach
+    void setUp() {
+        properties.getAdaptive().setSmoothing(0.5);
+        properties.getAdaptive().setProbeRatio(0.05);
+        properties.getAdaptive().setFailureThreshold(2);
+        properties.getAdaptive().setCooldown(Duration.ofSeconds(30));
+        router = new TransportRouter(rest, grpc, properties, () -> now, () -> probeDraw);
+    }
+
+    @Test
+    void usesTheBuiltInDefaultsWithoutPolicy() {
+        assertThat(call(Operation.PUBLISH)).isEqualTo("rest");
+        assertThat(call(Operation.START)).isEqualTo("rest");
+        assertThat(call(Operation.SET_VARIABLES)).isEqualTo("grpc");
+    }
+
+    @Test
+    void pinnedPolicyIgnoresLatency() {
+        properties.getPolicy().put("publish", Policy.GRPC);
+        grpc.latencyMillis = 100;
+        rest.latencyMillis = 1;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(call(Operation.PUBLISH)).isEqualTo("grpc");
+        }
+    }
+
+    @Test
+    void triesEachTransportBeforeComparing() {
+        adaptive();
+
+        assertThat(call(Operation.PUBLISH)).isEqualTo("grpc");
+        assertThat(call(Operation.PUBLISH)).isEqualTo("rest");
+    }
+
+    @Test
+    void sendsCallsToTheFasterTransport() {
+        adaptive();
+        measure(10, 2);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(call(Operation.PUBLISH)).isEqualTo("rest");
+        }
+    }
+
+    @Test
+    void probesTheSlowerTransport() {
+        adaptive();
+        measure(10, 2);
+
+        probeDraw = 0.01;
+        assertThat(call(Operation.PUBLISH)).isEqualTo("grpc");
+    }
+
+    @Test
+    void movingAverageFollowsALatencyChange() {
+        adaptive();
+        measure(10, 2);
+
+        // rest slows down: its average goes 2 -> 16 ms, above grpc's 10 ms
+        rest.latencyMillis = 30;
+        assertThat(call(Operation.PUBLISH)).isEqualTo("rest");
+        assertThat(call(Operation.PUBLISH)).isEqualTo("grpc");
+    }
+
+    @Test
+    void keepsPerOperationStatistics() {
+        adaptive();
+        properties.getPolicy().put("start", Policy.ADAPTIVE);
+        measure(10, 2);
+
+        // start has no measurements yet, so it tries both transports again
+        assertThat(call(Operation.START)).isEqualTo("grpc");
+    }
+
+    @Test
+    void setsAsideAFailingTransportForTheCooldown() {
+        adaptive();
+        measure(10, 2);
+
+        rest.failure = new IOException("Connection reset");
+        assertThat(call(Operation.PUBLISH)).isEqualTo("rest");
+        assertThat(call(Operation.PUBLISH)).isEqualTo("rest");
+
+        // two failures in a row: rest is set aside although it is faster
+        rest.failure = null;
+        assertThat(call(Operation.PUBLISH)).isEqualTo("grpc");
+
+        now += Duration.ofSeconds(29).toNanos();
+        assertThat(call(Operation.PUBLISH)).isEqualTo("grpc");
+
+        now += Duration.ofSeconds(1).toNanos();
+        assertThat(call(Operation.PUBLISH)).isEqualTo("rest");
+    }
+
+    @Test
+    void businessErrorsDoNotSetATransportAside() {
+        adaptive();
+        measure(10, 2);
+
+        rest.failure = new IllegalArgumentException("Unknown message name");
+        for (int i = 0; i < 5; i++) {
+            assertThat(call(Operation.PUBLISH)).isEqualTo("rest");
+        }
+    }
+
+    @Test
+    void keepsCallingWhenEveryTransportIsSetAside() {
+        adaptive();
+        measure(10, 2);
+        rest.failure = new IOException("Connection reset");
+        grpc.failure = new IOException("Connection reset");
+        for (int i = 0; i < 4; i++) {
+            call(Operation.PUBLISH);
+        }
+
+        assertThat(called.subList(called.size() - 4, called.size())).containsExactly("rest", "rest", "grpc", "grpc");
+        assertThat(call(Operation.PUBLISH)).isEqualTo("grpc");
+    }
+
+    @Test
+    void recognizesTransportFailures() {
+        assertThat(TransportRouter.isTransportFailure(new IOException("Connection refused"))).isTrue();
+        assertThat(TransportRouter.isTransportFailure(new RuntimeException(new IOException("Connection refused")))).isTrue();
+        assertThat(TransportRouter.isTransportFailure(new IllegalArgumentException("Bad request"))).isFalse();
+    }
+
+    private void adaptive() {
+        properties.getPolicy().put("publish", Policy.ADAPTIVE);
+    }
+
+    /** Gives both transports one publish measurement */
+    private void measure(long grpcMillis, long restMillis) {
+        grpc.latencyMillis = grpcMillis;
+        rest.latencyMillis = restMillis;
+        call(Operation.PUBLISH);
+        call(Operation.PUBLISH);
+    }
+
+    /** Routes one call and returns the transport that got it */
+    private String call(Operation operation) {
+        router.route(operation, transport -> switch (operation) {
+                    case PUBLISH -> transport.publishMessage(null);
+                    case START -> transport.startProcess(null);
+                    case CANCEL -> transport.cancelProcessInstance("1");
+                    case SET_VARIABLES -> transport.setVariables("1", Map.of(), false).cast(Object.class);
+                })
+                .onErrorResume(ex -> Mono.empty())
+                .block();
+        return called.get(called.size() - 1);
+    }
+
+    /** Answers after its latency has passed on the test clock, or fails with its failure */
+    private final class StubTransport implements CamundaTransport {
+
+        final String name;
+        long latencyMillis = 1;
+        Throwable failure;
+
+        StubTransport(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        private Mono<Object> answer() {
+            return Mono.defer(() -> {
+                called.add(name);
+                now += TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+                return failure == null ? Mono.just(name) : Mono.error(failure);
+            });
+        }
+
+        @Override
+        public Mono<Object> publishMessage(publicationMessageRequest request) {
+            return answer();
+        }
+
+        @Override
+        public Mono<Object> startProcess(StartProcessInstanceRequest request) {
+            return answer();
+        }
+
+        @Override
+        public Mono<Object> cancelProcessInstance(String processInstanceKey) {
+            return answer();
+        }
+
+        @Override
+        public Mono<Void> setVariables(String scopeKey, Map<String, Object> variables, boolean local) {
+            return answer().then();
+        }
+    }
+}
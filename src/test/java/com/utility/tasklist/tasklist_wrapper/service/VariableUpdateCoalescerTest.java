@@ -0,0 +1,139 @@
+package com.utility.tasklist.tasklist_wrapper.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Merging of updates per scope, sending when the window ends or the batch is full, and the
+ * shutdown path. Tests that are not about the window use one long enough never to end.
+ */
+@Timeout(10)
+class VariableUpdateCoalescerTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    /** Variables of every command sent, in order */
+    private final List<Map<String, Object>> sent = new CopyOnWriteArrayList<>();
+    private final Function<Map<String, Object>, Mono<Void>> sender = variables -> Mono.fromRunnable(
+            () -> sent.add(new LinkedHashMap<>(variables)));
+
+    private VariableUpdateCoalescer coalescer;
+
+    @AfterEach
+    void close() {
+        if (coalescer != null) {
+            coalescer.flushAll();
+        }
+    }
+
+    @Test
+    void mergesUpdatesOfAScopeLastWriteWins() throws Exception {
+        coalescer = new VariableUpdateCoalescer(true, NEVER, 100, Duration.ofSeconds(5));
+        CompletableFuture<Void> first = submit("1", false, Map.of("a", 1, "b", 1));
+        CompletableFuture<Void> second = submit("1", false, Map.of("b", 2));
+        CompletableFuture<Void> third = submit("1", false, Map.of("c", 3));
+
+        assertThat(sent).isEmpty();
+        coalescer.flushAll();
+
+        assertThat(sent).containsExactly(Map.of("a", 1, "b", 2, "c", 3));
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void keepsScopesApart() {
+        coalescer = new VariableUpdateCoalescer(true, NEVER, 100, Duration.ofSeconds(5));
+        submit("1", false, Map.of("a", 1));
+        submit("1", true, Map.of("a", 2));
+        submit("2", false, Map.of("a", 3));
+
+        coalescer.flushAll();
+
+        assertThat(sent).containsExactlyInAnyOrder(Map.of("a", 1), Map.of("a", 2), Map.of("a", 3));
+    }
+
+    @Test
+    void sendsAFullBatchRightAway() throws Exception {
+        coalescer = new VariableUpdateCoalescer(true, NEVER, 2, Duration.ofSeconds(5));
+        CompletableFuture<Void> first = submit("1", false, Map.of("a", 1));
+        CompletableFuture<Void> second = submit("1", false, Map.of("b", 2));
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertThat(sent).containsExactly(Map.of("a", 1, "b", 2));
+
+        // the next update starts a new batch
+        CompletableFuture<Void> third = submit("1", false, Map.of("c", 3));
+        assertThat(third).isNotDone();
+        assertThat(sent).hasSize(1);
+    }
+
+    @Test
+    void sendsWhenTheWindowEnds() throws Exception {
+        coalescer = new VariableUpdateCoalescer(true, Duration.ofMillis(50), 100, Duration.ofSeconds(5));
+        CompletableFuture<Void> first = submit("1", false, Map.of("a", 1));
+        CompletableFuture<Void> second = submit("1", false, Map.of("b", 2));
+        assertThat(sent).isEmpty();
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        assertThat(sent).containsExactly(Map.of("a", 1, "b", 2));
+    }
+
+    @Test
+    void failsEveryCallerOfAFailedCommand() {
+        coalescer = new VariableUpdateCoalescer(true, NEVER, 2, Duration.ofSeconds(5));
+        Function<Map<String, Object>, Mono<Void>> failing = variables -> Mono.error(new IllegalStateException("rejected"));
+        CompletableFuture<Void> first = coalescer.submit("1", false, Map.of("a", 1), failing).toFuture();
+        CompletableFuture<Void> second = coalescer.submit("1", false, Map.of("b", 2), failing).toFuture();
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void flushesPendingUpdatesOnShutdownAndSendsLaterOnesDirectly() throws Exception {
+        coalescer = new VariableUpdateCoalescer(true, NEVER, 100, Duration.ofSeconds(5));
+        CompletableFuture<Void> pending = submit("1", false, Map.of("a", 1));
+
+        coalescer.flushAll();
+
+        pending.get(5, TimeUnit.SECONDS);
+        assertThat(sent).containsExactly(Map.of("a", 1));
+
+        // requests still being served during a graceful shutdown are not merged, but not failed either
+        submit("1", false, Map.of("b", 2)).get(5, TimeUnit.SECONDS);
+        submit("1", false, Map.of("c", 3)).get(5, TimeUnit.SECONDS);
+        assertThat(sent).containsExactly(Map.of("a", 1), Map.of("b", 2), Map.of("c", 3));
+    }
+
+    @Test
+    void disabledCoalescerSendsEveryUpdate() {
+        coalescer = new VariableUpdateCoalescer(false, NEVER, 100, Duration.ofSeconds(5));
+        submit("1", false, Map.of("a", 1));
+        submit("1", false, Map.of("b", 2));
+
+        assertThat(sent).containsExactly(Map.of("a", 1), Map.of("b", 2));
+    }
+
+    private CompletableFuture<Void> submit(String key, boolean local, Map<String, Object> variables) {
+        return coalescer.submit(key, local, variables, sender).toFuture();
+    }
+}